@@ -0,0 +1,69 @@
+package com.sparktechcode.springjpasearch.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class BaselineComparison {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparison <baseline.json> <results.json> [tolerance]");
+            System.exit(2);
+        }
+        var tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.15;
+        var baseline = read(new File(args[0]));
+        var results = read(new File(args[1]));
+        var regressions = 0;
+        for (var entry : results.entrySet()) {
+            var previous = baseline.get(entry.getKey());
+            if (previous == null) {
+                System.out.printf("%-90s %14.3f %s (new)%n", entry.getKey(), entry.getValue().score(), entry.getValue().unit());
+                continue;
+            }
+            var change = entry.getValue().score() / previous.score() - 1;
+            var regression = entry.getValue().higherIsBetter() ? change < -tolerance : change > tolerance;
+            regressions += regression ? 1 : 0;
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%% %s%s%n", entry.getKey(), previous.score(), entry.getValue().score(), change * 100, entry.getValue().unit(), regression ? " REGRESSION" : "");
+        }
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> read(File file) throws IOException {
+        var scores = new LinkedHashMap<String, Score>();
+        for (var result : new ObjectMapper().readTree(file)) {
+            var name = result.get("benchmark").asText().replace(BaselineComparison.class.getPackageName() + ".", "") + params(result.get("params"));
+            var metric = result.get("primaryMetric");
+            var mode = result.get("mode").asText();
+            var unit = metric.get("scoreUnit").asText();
+            if ("thrpt".equals(mode)) {
+                scores.put(name + " thrpt", new Score(metric.get("score").asDouble(), unit, true));
+            } else if ("sample".equals(mode)) {
+                scores.put(name + " p99", new Score(metric.get("scorePercentiles").get("99.0").asDouble(), unit, false));
+            }
+            var allocation = result.path("secondaryMetrics").path("gc.alloc.rate.norm");
+            if (!allocation.isMissingNode() && "thrpt".equals(mode)) {
+                scores.put(name + " alloc", new Score(allocation.get("score").asDouble(), allocation.get("scoreUnit").asText(), false));
+            }
+        }
+        return scores;
+    }
+
+    private static String params(JsonNode params) {
+        if (params == null || params.isEmpty()) {
+            return "";
+        }
+        var builder = new StringBuilder();
+        params.fields().forEachRemaining(param -> builder.append(builder.isEmpty() ? " [" : ", ").append(param.getKey()).append('=').append(param.getValue().asText()));
+        return builder.append(']').toString();
+    }
+
+    private record Score(double score, String unit, boolean higherIsBetter) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.sparktechcode.springjpasearch.benchmarks;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.jpa.HibernatePersistenceProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+@Configuration
+public class BenchmarkConfiguration {
+
+    @Bean
+    public DataSource dataSource(@Value("${benchmark.url}") String url) {
+        var dataSource = new JdbcDataSource();
+        dataSource.setURL(url);
+        return dataSource;
+    }
+
+    @Bean
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource, @Value("${benchmark.ddl}") String ddl) {
+        var factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPersistenceProvider(new HibernatePersistenceProvider());
+        factory.setPackagesToScan("com.sparktechcode.springjpasearch.benchmarks.model");
+        factory.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", ddl,
+                "hibernate.jdbc.batch_size", 1000,
+                "hibernate.default_batch_fetch_size", 100
+        ));
+        return factory;
+    }
+
+    @Bean
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+
+    @Bean
+    public TransactionTemplate transactionTemplate(JpaTransactionManager transactionManager) {
+        var template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    @Bean
+    public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+
+    @Bean
+    public UserSearchService userSearchService(EntityManagerFactory entityManagerFactory) {
+        return new UserSearchService(SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory));
+    }
+}
@@ -0,0 +1,120 @@
+package com.sparktechcode.springjpasearch.benchmarks;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+public class BenchmarkDatabase implements AutoCloseable {
+
+    public static final int COUNTRIES = 50;
+    public static final int ROLES_PER_USER = 3;
+    public static final String[] ROLES = {"CUSTOMER", "ADMIN", "SUPPORT", "SALES", "DEVELOPER", "AUDITOR"};
+
+    // larger datasets do not fit into the heap, they are written to an H2 file once and reused by later forks and runs
+    public static final int IN_MEMORY_ROWS = 1_000_000;
+
+    private static final int INSERT_BATCH_SIZE = 10_000;
+    private static final LocalDate START = LocalDate.of(2020, 1, 1);
+    private static final Path DATA_DIRECTORY = Path.of(System.getProperty("benchmark.data", "target/benchmark-data"));
+
+    private final AnnotationConfigApplicationContext context;
+    private final int rows;
+
+    private BenchmarkDatabase(int rows) {
+        this.rows = rows;
+        var file = rows > IN_MEMORY_ROWS ? DATA_DIRECTORY.resolve("users-" + rows).toAbsolutePath() : null;
+        var marker = file == null ? null : Path.of(file + ".populated");
+        var populated = marker != null && Files.exists(marker);
+        this.context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", Map.of(
+                "benchmark.url", file == null ? "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1" : "jdbc:h2:file:" + file + ";CACHE_SIZE=1048576",
+                "benchmark.ddl", populated ? "none" : "create"
+        )));
+        context.register(BenchmarkConfiguration.class);
+        context.refresh();
+        if (!populated) {
+            populate(context.getBean(JdbcTemplate.class), rows);
+            if (marker != null) {
+                try {
+                    Files.createFile(marker);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    public static BenchmarkDatabase start(int rows) {
+        return new BenchmarkDatabase(rows);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public UserSearchService getSearchService() {
+        return context.getBean(UserSearchService.class);
+    }
+
+    public <T> T inTransaction(Supplier<T> work) {
+        return context.getBean(TransactionTemplate.class).execute(status -> work.get());
+    }
+
+    public static MultiValueMap<String, String> params(String... keysAndValues) {
+        var params = new LinkedMultiValueMap<String, String>();
+        for (var i = 0; i < keysAndValues.length; i += 2) {
+            params.add(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return params;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    private static void populate(JdbcTemplate jdbcTemplate, int rows) {
+        var countries = new ArrayList<Object[]>(COUNTRIES);
+        for (long id = 1; id <= COUNTRIES; id++) {
+            countries.add(new Object[]{id, "C" + id});
+        }
+        jdbcTemplate.batchUpdate("insert into benchmark_country (id, code) values (?, ?)", countries);
+        var users = new ArrayList<Object[]>(INSERT_BATCH_SIZE);
+        var roles = new ArrayList<Object[]>(INSERT_BATCH_SIZE * ROLES_PER_USER);
+        for (long id = 1; id <= rows; id++) {
+            users.add(new Object[]{
+                    id,
+                    "user" + id,
+                    "user" + id + "@example.com",
+                    18 + (int) (id % 60),
+                    id % 5 == 0 ? "INACTIVE" : "ACTIVE",
+                    Date.valueOf(START.plusDays(id % 1500)),
+                    1 + id % COUNTRIES
+            });
+            for (var role = 0; role < ROLES_PER_USER; role++) {
+                roles.add(new Object[]{id * ROLES_PER_USER + role, ROLES[(int) ((id + role * 7) % ROLES.length)], id});
+            }
+            if (users.size() == INSERT_BATCH_SIZE || id == rows) {
+                jdbcTemplate.batchUpdate("insert into benchmark_user (id, name, email, age, status, created, country_id) values (?, ?, ?, ?, ?, ?, ?)", users);
+                jdbcTemplate.batchUpdate("insert into benchmark_role (id, name, user_id) values (?, ?, ?)", roles);
+                users.clear();
+                roles.clear();
+            }
+        }
+        jdbcTemplate.execute("analyze");
+    }
+}
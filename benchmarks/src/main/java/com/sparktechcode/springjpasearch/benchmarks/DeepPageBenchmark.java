@@ -0,0 +1,68 @@
+package com.sparktechcode.springjpasearch.benchmarks;
+
+import com.sparktechcode.springjpasearch.benchmarks.model.BenchmarkUser;
+import com.sparktechcode.springjpasearch.pagination.SearchCursor;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.util.MultiValueMap;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.sparktechcode.springjpasearch.benchmarks.BenchmarkDatabase.params;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 3, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class DeepPageBenchmark {
+
+    private static final int LIMIT = 50;
+
+    @Param({"100000", "1000000", "10000000"})
+    private int rows;
+
+    private BenchmarkDatabase database;
+    private UserSearchService service;
+    private MultiValueMap<String, String> offsetPage;
+    private MultiValueMap<String, String> cursorPage;
+    private MultiValueMap<String, String> allData;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.start(rows);
+        service = database.getSearchService();
+        var page = String.valueOf(Math.max(0, rows / LIMIT / 2));
+        offsetPage = params("order", "created:d", "order", "id:a", "limit", String.valueOf(LIMIT), "page", page);
+        var previous = database.inTransaction(() -> service.search(params("order", "created:d", "order", "id:a", "limit", String.valueOf(LIMIT), "page", String.valueOf(Math.max(0, rows / LIMIT / 2 - 1)))));
+        var cursor = "";
+        if (previous.hasContent()) {
+            var last = previous.getContent().get(previous.getContent().size() - 1);
+            cursor = SearchCursor.encode(List.of(last.getCreated(), last.getId()));
+        }
+        cursorPage = params("order", "created:d", "limit", String.valueOf(LIMIT), "after", cursor);
+        allData = params("filter", "age::30", "filter", "status::ACTIVE", "allData", "true");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Page<BenchmarkUser> offsetPage() {
+        return database.inTransaction(() -> service.search(offsetPage));
+    }
+
+    @Benchmark
+    public Page<BenchmarkUser> cursorPage() {
+        return database.inTransaction(() -> service.search(cursorPage));
+    }
+
+    @Benchmark
+    public Page<BenchmarkUser> allData() {
+        return database.inTransaction(() -> service.search(allData));
+    }
+}
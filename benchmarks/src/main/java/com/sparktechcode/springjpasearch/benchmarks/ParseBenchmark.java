@@ -0,0 +1,77 @@
+package com.sparktechcode.springjpasearch.benchmarks;
+
+import com.sparktechcode.springjpasearch.benchmarks.model.BenchmarkUser;
+import com.sparktechcode.springjpasearch.queries.CompiledSearch;
+import com.sparktechcode.springjpasearch.queries.SearchQueryCompiler;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.MultiValueMap;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.sparktechcode.springjpasearch.benchmarks.BenchmarkDatabase.params;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(3)
+public class ParseBenchmark {
+
+    private BenchmarkDatabase database;
+    private UserSearchService service;
+    private CriteriaBuilder builder;
+    private MultiValueMap<String, String> simple;
+    private MultiValueMap<String, String> complex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.start(0);
+        service = database.getSearchService();
+        builder = service.getEntityManager().getCriteriaBuilder();
+        simple = params("filter", "age>:30", "order", "created:d");
+        complex = params(
+                "filter", "age>:30",
+                "filter", "status::ACTIVE|name:~user1",
+                "filter", "country.code/:C1,C2,C3,C4,C5",
+                "filter", "roles.name::ADMIN",
+                "filter", "created>:2021-01-01",
+                "order", "created:d",
+                "order", "name:a"
+        );
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public CompiledSearch compileCached() {
+        return service.compileSearch(complex);
+    }
+
+    @Benchmark
+    public CompiledSearch compileUncached() {
+        SearchQueryCompiler.clearCache();
+        return service.compileSearch(complex);
+    }
+
+    @Benchmark
+    public Predicate buildSimplePredicate() {
+        return buildPredicate(simple);
+    }
+
+    @Benchmark
+    public Predicate buildComplexPredicate() {
+        return buildPredicate(complex);
+    }
+
+    private Predicate buildPredicate(MultiValueMap<String, String> params) {
+        var query = builder.createTupleQuery();
+        var root = query.from(BenchmarkUser.class);
+        return service.toDataSpecification(params, null).toPredicate(root, query, builder);
+    }
+}
@@ -0,0 +1,69 @@
+package com.sparktechcode.springjpasearch.benchmarks;
+
+import com.sparktechcode.springjpasearch.benchmarks.model.BenchmarkUser;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.util.MultiValueMap;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.sparktechcode.springjpasearch.benchmarks.BenchmarkDatabase.params;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 3, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class SearchBenchmark {
+
+    @Param({"100000", "1000000", "10000000"})
+    private int rows;
+
+    private BenchmarkDatabase database;
+    private UserSearchService service;
+    private MultiValueMap<String, String> simpleFilter;
+    private MultiValueMap<String, String> toManyFilter;
+    private MultiValueMap<String, String> associationOrder;
+    private MultiValueMap<String, String> withoutCount;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.start(rows);
+        service = database.getSearchService();
+        simpleFilter = params("filter", "age>:30", "filter", "status::ACTIVE", "order", "created:d", "limit", "20");
+        toManyFilter = params("filter", "roles.name::ADMIN", "filter", "age<:40", "order", "created:d", "limit", "20");
+        associationOrder = params("filter", "country.code/:C1,C2,C3", "order", "country.code:a", "order", "name:a", "limit", "20");
+        withoutCount = params("filter", "age>:30", "order", "created:d", "limit", "20", "count", "false");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Page<BenchmarkUser> simpleFilter() {
+        return database.inTransaction(() -> service.search(simpleFilter));
+    }
+
+    @Benchmark
+    public Page<BenchmarkUser> toManyFilter() {
+        return database.inTransaction(() -> service.search(toManyFilter));
+    }
+
+    @Benchmark
+    public Page<BenchmarkUser> associationOrder() {
+        return database.inTransaction(() -> service.search(associationOrder));
+    }
+
+    @Benchmark
+    public Page<BenchmarkUser> withoutCount() {
+        return database.inTransaction(() -> service.search(withoutCount));
+    }
+
+    @Benchmark
+    public Long count() {
+        return database.inTransaction(() -> service.count(simpleFilter));
+    }
+}
@@ -0,0 +1,24 @@
+package com.sparktechcode.springjpasearch.benchmarks;
+
+import com.sparktechcode.springjpasearch.benchmarks.model.BenchmarkUser;
+import com.sparktechcode.springjpasearch.services.SearchService;
+import jakarta.persistence.EntityManager;
+
+public class UserSearchService implements SearchService<Long, BenchmarkUser> {
+
+    private final EntityManager entityManager;
+
+    public UserSearchService(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public EntityManager getEntityManager() {
+        return entityManager;
+    }
+
+    @Override
+    public boolean isSearchAllDataAllowed() {
+        return true;
+    }
+}
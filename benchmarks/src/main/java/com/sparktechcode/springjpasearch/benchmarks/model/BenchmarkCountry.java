@@ -0,0 +1,24 @@
+package com.sparktechcode.springjpasearch.benchmarks.model;
+
+import com.sparktechcode.springjpasearch.entities.BaseEntity;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "benchmark_country")
+public class BenchmarkCountry implements BaseEntity<Long> {
+
+    @Id
+    private Long id;
+    private String code;
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    public String getCode() {
+        return code;
+    }
+}
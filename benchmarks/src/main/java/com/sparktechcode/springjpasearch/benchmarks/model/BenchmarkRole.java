@@ -0,0 +1,29 @@
+package com.sparktechcode.springjpasearch.benchmarks.model;
+
+import com.sparktechcode.springjpasearch.entities.BaseEntity;
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "benchmark_role", indexes = @Index(columnList = "name"))
+public class BenchmarkRole implements BaseEntity<Long> {
+
+    @Id
+    private Long id;
+    private String name;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private BenchmarkUser user;
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public BenchmarkUser getUser() {
+        return user;
+    }
+}
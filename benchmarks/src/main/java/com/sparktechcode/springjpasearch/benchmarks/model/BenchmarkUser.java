@@ -0,0 +1,60 @@
+package com.sparktechcode.springjpasearch.benchmarks.model;
+
+import com.sparktechcode.springjpasearch.entities.BaseEntity;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+@Entity
+@Table(name = "benchmark_user", indexes = {@Index(columnList = "age"), @Index(columnList = "created")})
+public class BenchmarkUser implements BaseEntity<Long> {
+
+    @Id
+    private Long id;
+    private String name;
+    private String email;
+    private Integer age;
+    private String status;
+    private LocalDate created;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private BenchmarkCountry country;
+
+    @OneToMany(mappedBy = "user")
+    private Set<BenchmarkRole> roles = new HashSet<>();
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public LocalDate getCreated() {
+        return created;
+    }
+
+    public BenchmarkCountry getCountry() {
+        return country;
+    }
+
+    public Set<BenchmarkRole> getRoles() {
+        return roles;
+    }
+}
@@ -0,0 +1,140 @@
+package com.sparktechcode.springjpasearch.batch;
+
+import com.sparktechcode.springjpasearch.count.SearchCount;
+import com.sparktechcode.springjpasearch.count.SearchKey;
+import com.sparktechcode.springjpasearch.entities.BaseEntity;
+import com.sparktechcode.springjpasearch.pagination.SearchPage;
+import com.sparktechcode.springjpasearch.routing.SearchRouting;
+import com.sparktechcode.springjpasearch.services.SearchService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.time.Duration;
+import java.util.*;
+
+public class SearchBatch {
+
+    private final TransactionTemplate transaction;
+    private final Map<String, Search<?, ?>> searches = new LinkedHashMap<>();
+
+    public SearchBatch(PlatformTransactionManager transactionManager) {
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setReadOnly(true);
+    }
+
+    public <I, E extends BaseEntity<I>> SearchBatch add(String name, SearchService<I, E> service, MultiValueMap<String, String> params) {
+        return add(name, service, params, null);
+    }
+
+    public <I, E extends BaseEntity<I>> SearchBatch add(String name, SearchService<I, E> service, MultiValueMap<String, String> params, Specification<E> specification) {
+        searches.put(name, new Search<>(service, params, specification));
+        return this;
+    }
+
+    public SearchBatchResult execute() {
+        return SearchRouting.withLagTolerance(getReplicaLagTolerance(), () -> transaction.execute(status -> executeSearches()));
+    }
+
+    private Duration getReplicaLagTolerance() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+        Duration tolerance = null;
+        for (var search : searches.values()) {
+            var serviceTolerance = search.service().getReplicaLagTolerance();
+            // an entity manager bound to the request, e.g. by open in view, would keep the replica connection
+            if (serviceTolerance == null || TransactionSynchronizationManager.hasResource(search.service().getEntityManagerFactory())) {
+                return null;
+            }
+            tolerance = tolerance == null || serviceTolerance.compareTo(tolerance) < 0 ? serviceTolerance : tolerance;
+        }
+        return tolerance;
+    }
+
+    private SearchBatchResult executeSearches() {
+        var pages = new LinkedHashMap<String, Page<?>>();
+        var identifiers = new LinkedHashMap<String, Page<?>>();
+        var counts = new HashMap<SearchKey, SearchCount>();
+        for (var entry : searches.entrySet()) {
+            var search = entry.getValue();
+            if (search.isAllData()) {
+                pages.put(entry.getKey(), search.search());
+            } else {
+                identifiers.put(entry.getKey(), search.searchIdentifiers(counts));
+            }
+        }
+        var entities = new IdentityHashMap<SearchService<?, ?>, Map<Object, Object>>();
+        for (var entry : identifiers.entrySet()) {
+            var search = searches.get(entry.getKey());
+            entities.computeIfAbsent(search.service(), service -> new HashMap<>());
+        }
+        for (var service : entities.keySet()) {
+            var ids = new LinkedHashSet<>();
+            identifiers.forEach((name, page) -> {
+                if (searches.get(name).service() == service) {
+                    ids.addAll(page.getContent());
+                }
+            });
+            entities.get(service).putAll(findAllById(service, ids));
+        }
+        var result = new LinkedHashMap<String, Page<?>>();
+        for (var name : searches.keySet()) {
+            var page = pages.get(name);
+            if (page == null) {
+                var ids = identifiers.get(name);
+                var loaded = entities.get(searches.get(name).service());
+                page = ((SearchPage<?>) ids).withContent(ids.getContent().stream().map(loaded::get).filter(Objects::nonNull).toList());
+            }
+            result.put(name, page);
+        }
+        return new SearchBatchResult(result);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <I, E extends BaseEntity<I>> Map<Object, Object> findAllById(SearchService<I, E> service, Collection<?> ids) {
+        var entities = new HashMap<Object, Object>();
+        service.findAllById(new ArrayList<>((Collection<I>) ids)).forEach(entity -> entities.put(entity.getId(), entity));
+        return entities;
+    }
+
+    private record Search<I, E extends BaseEntity<I>>(SearchService<I, E> service, MultiValueMap<String, String> params, Specification<E> specification) {
+
+        boolean isAllData() {
+            return service.isSearchAllDataAllowed() && service.requestedAllData(params);
+        }
+
+        Page<E> search() {
+            return service.search(params, specification);
+        }
+
+        SearchPage<I> searchIdentifiers(Map<SearchKey, SearchCount> counts) {
+            if (service.requestedCursor(params) || service.requestedNoCount(params)) {
+                return toSearchPage(service.searchIdentifiers(params, specification));
+            }
+            var probeParams = new LinkedMultiValueMap<>(params);
+            probeParams.set(service.countParamName(), "false");
+            var page = toSearchPage(service.searchIdentifiers(probeParams, specification));
+            if (page.isTotalExact()) {
+                return page;
+            }
+            var key = service.getSearchKey(params, specification);
+            var count = key == null ? service.countSearch(params, specification) : counts.computeIfAbsent(key, ignored -> service.countSearch(params, specification));
+            if (!count.isKnown()) {
+                return page;
+            }
+            return new SearchPage<>(page.getContent(), page.getPageable(), count.total(), count.exact());
+        }
+
+        private SearchPage<I> toSearchPage(Page<I> page) {
+            if (page instanceof SearchPage<I> searchPage) {
+                return searchPage;
+            }
+            return new SearchPage<>(page.getContent(), page.getPageable(), page.getTotalElements(), true);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.sparktechcode.springjpasearch.batch;
+
+import org.springframework.data.domain.Page;
+
+import java.util.Map;
+
+public record SearchBatchResult(Map<String, Page<?>> pages) {
+
+    @SuppressWarnings("unchecked")
+    public <E> Page<E> get(String name) {
+        return (Page<E>) pages.get(name);
+    }
+}
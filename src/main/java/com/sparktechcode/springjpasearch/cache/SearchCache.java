@@ -0,0 +1,92 @@
+package com.sparktechcode.springjpasearch.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+public class SearchCache<K, V> {
+
+    private final int maxSize;
+    private final long timeToLive;
+    private final Consumer<K> evicted;
+    private final LinkedHashMap<K, CacheEntry<V>> entries;
+
+    public SearchCache(int maxSize) {
+        this(maxSize, null);
+    }
+
+    public SearchCache(int maxSize, Duration timeToLive) {
+        this(maxSize, timeToLive, key -> {
+        });
+    }
+
+    public SearchCache(int maxSize, Duration timeToLive, Consumer<K> evicted) {
+        this.maxSize = maxSize;
+        this.timeToLive = timeToLive == null ? 0 : timeToLive.toNanos();
+        this.evicted = evicted;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                if (size() > SearchCache.this.maxSize) {
+                    SearchCache.this.evicted.accept(eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        var entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (isExpired(entry)) {
+            entries.remove(key);
+            evicted.accept(key);
+            return null;
+        }
+        return entry.value();
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, new CacheEntry<>(value, System.nanoTime()));
+    }
+
+    public V computeIfAbsent(K key, Function<K, V> loader) {
+        var value = get(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateIf(Predicate<K> predicate) {
+        entries.keySet().removeIf(predicate);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private boolean isExpired(CacheEntry<V> entry) {
+        return timeToLive > 0 && System.nanoTime() - entry.created() > timeToLive;
+    }
+
+    private record CacheEntry<V>(V value, long created) {
+    }
+}
@@ -0,0 +1,90 @@
+package com.sparktechcode.springjpasearch.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public class SearchResultCache {
+
+    private final SearchCache<SearchResultKey, Object> cache;
+    private final Map<Class<?>, Set<SearchResultKey>> keys = new ConcurrentHashMap<>();
+    private final Map<Class<?>, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public SearchResultCache(int maxSize, Duration timeToLive) {
+        this.cache = new SearchCache<>(maxSize, timeToLive, this::unindex);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(SearchResultKey key, Supplier<T> loader) {
+        var cached = cache.get(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+        var before = generation(key);
+        var value = loader.get();
+        if (value != null) {
+            key.entityClasses().forEach(type -> keys.computeIfAbsent(type, ignored -> ConcurrentHashMap.newKeySet()).add(key));
+            cache.put(key, value);
+            if (generation(key) != before) {
+                // an entity class of the key changed while the value was loaded
+                remove(key);
+            }
+        }
+        return value;
+    }
+
+    public void invalidate(Class<?> entityClass) {
+        generations.forEach((type, generation) -> {
+            if (isRelated(type, entityClass)) {
+                generation.incrementAndGet();
+            }
+        });
+        for (var type : keys.keySet()) {
+            if (isRelated(type, entityClass)) {
+                var removed = keys.remove(type);
+                if (removed != null) {
+                    removed.forEach(this::remove);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        generations.values().forEach(AtomicLong::incrementAndGet);
+        keys.clear();
+        cache.clear();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    private long generation(SearchResultKey key) {
+        var generation = 0L;
+        for (var type : key.entityClasses()) {
+            generation += generations.computeIfAbsent(type, ignored -> new AtomicLong()).get();
+        }
+        return generation;
+    }
+
+    private void remove(SearchResultKey key) {
+        cache.invalidate(key);
+        unindex(key);
+    }
+
+    private void unindex(SearchResultKey key) {
+        for (var type : key.entityClasses()) {
+            var indexed = keys.get(type);
+            if (indexed != null) {
+                indexed.remove(key);
+            }
+        }
+    }
+
+    private static boolean isRelated(Class<?> type, Class<?> entityClass) {
+        return type.isAssignableFrom(entityClass) || entityClass.isAssignableFrom(type);
+    }
+}
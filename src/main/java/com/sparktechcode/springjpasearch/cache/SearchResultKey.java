@@ -0,0 +1,19 @@
+package com.sparktechcode.springjpasearch.cache;
+
+import com.sparktechcode.springjpasearch.count.SearchKey;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Set;
+
+public record SearchResultKey(SearchKey search, String operation, List<String> orders, Pageable pageable, String cursor, boolean counted, Set<Class<?>> entityClasses) {
+
+    public boolean dependsOn(Class<?> entityClass) {
+        for (var type : entityClasses) {
+            if (type.isAssignableFrom(entityClass) || entityClass.isAssignableFrom(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,39 @@
+package com.sparktechcode.springjpasearch.concurrent;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public final class SearchExecutors {
+
+    private static final int QUEUE_SIZE = 1024;
+    private static final ExecutorService DEFAULT_EXECUTOR = createDefaultExecutor();
+
+    private SearchExecutors() {
+    }
+
+    public static ExecutorService defaultExecutor() {
+        return DEFAULT_EXECUTOR;
+    }
+
+    private static ExecutorService createDefaultExecutor() {
+        try {
+            var factory = MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+            return (ExecutorService) factory.invoke();
+        } catch (Throwable e) {
+            // platform threads are expensive, parallel searches beyond the pool and queue run on the calling thread
+            var threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+            var executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(QUEUE_SIZE), runnable -> {
+                var thread = new Thread(runnable, "spring-jpa-search");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+}
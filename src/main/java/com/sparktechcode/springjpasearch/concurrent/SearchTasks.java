@@ -0,0 +1,66 @@
+package com.sparktechcode.springjpasearch.concurrent;
+
+import com.sparktechcode.springjpasearch.exceptions.InternalServerException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static com.sparktechcode.springjpasearch.exceptions.SparkError.SEARCH_TIMEOUT;
+import static com.sparktechcode.springjpasearch.exceptions.SparkError.SERVER_ERROR;
+
+@Slf4j
+public final class SearchTasks {
+
+    private SearchTasks() {
+    }
+
+    public static <T> List<T> invokeAll(Executor executor, Duration timeout, List<? extends Callable<? extends T>> tasks) {
+        var completion = new ExecutorCompletionService<T>(executor);
+        var futures = new ArrayList<Future<T>>(tasks.size());
+        try {
+            for (var task : tasks) {
+                futures.add(completion.submit(task::call));
+            }
+            var deadline = System.nanoTime() + timeout.toNanos();
+            for (var i = 0; i < tasks.size(); i++) {
+                var completed = completion.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (completed == null) {
+                    throw new InternalServerException(SEARCH_TIMEOUT, "Search did not complete in " + timeout.toMillis() + " ms.");
+                }
+                completed.get();
+            }
+            var results = new ArrayList<T>(futures.size());
+            for (var future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InternalServerException(SERVER_ERROR, "Search was interrupted.", e);
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    public static CompletableFuture<Void> runInBackground(Executor executor, String description, Runnable task) {
+        return CompletableFuture.runAsync(task, executor).exceptionally(e -> {
+            log.warn("{} failed", description, e instanceof CompletionException ? e.getCause() : e);
+            return null;
+        });
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new InternalServerException(SERVER_ERROR, cause.getMessage(), cause);
+    }
+}
@@ -0,0 +1,47 @@
+package com.sparktechcode.springjpasearch.cost;
+
+import com.sparktechcode.springjpasearch.metadata.EntitySearchMetadata;
+import com.sparktechcode.springjpasearch.queries.CompiledSearch;
+import com.sparktechcode.springjpasearch.queries.FieldPath;
+
+import java.util.HashSet;
+
+public record SearchCost(int joins, int disjunctions, int inValues, int maxInValues, int leadingWildcards, int unindexedOrders, long offset) {
+
+    public static SearchCost of(CompiledSearch search, long offset, EntitySearchMetadata metadata) {
+        var associations = new HashSet<String>();
+        var disjunctions = 0;
+        var inValues = 0;
+        var maxInValues = 0;
+        var leadingWildcards = 0;
+        for (var group : search.filters()) {
+            disjunctions += group.conditions().size() - 1;
+            for (var condition : group.conditions()) {
+                addAssociations(condition.getPath(), associations);
+                inValues += condition.getValues().size();
+                maxInValues = Math.max(maxInValues, condition.getValues().size());
+                if (condition.getLikePattern() != null && condition.getLikePattern().startsWith("%")) {
+                    leadingWildcards++;
+                }
+            }
+        }
+        var unindexedOrders = 0;
+        for (var order : search.orders()) {
+            addAssociations(order.path(), associations);
+            if (metadata != null && !metadata.isIndexed(order.path())) {
+                unindexedOrders++;
+            }
+        }
+        return new SearchCost(associations.size(), disjunctions, inValues, maxInValues, leadingWildcards, unindexedOrders, offset);
+    }
+
+    private static void addAssociations(FieldPath path, HashSet<String> associations) {
+        associations.addAll(path.prefixes().subList(0, path.prefixes().size() - 1));
+    }
+
+    @Override
+    public String toString() {
+        return "joins=" + joins + ", or=" + disjunctions + ", in=" + inValues + ", leadingWildcards=" + leadingWildcards
+                + ", unindexedOrders=" + unindexedOrders + ", offset=" + offset;
+    }
+}
@@ -0,0 +1,28 @@
+package com.sparktechcode.springjpasearch.cost;
+
+import lombok.With;
+
+@With
+public record SearchCostModel(
+        int budget,
+        int joinCost,
+        int disjunctionCost,
+        int inValueCost,
+        int leadingWildcardCost,
+        int unindexedOrderCost,
+        int offsetCost,
+        int maxInValues,
+        long maxOffset
+) {
+
+    public static final SearchCostModel DEFAULT = new SearchCostModel(150, 10, 5, 0, 15, 15, 1, 10_000, 100_000);
+
+    public long cost(SearchCost cost) {
+        return (long) cost.joins() * joinCost
+                + (long) cost.disjunctions() * disjunctionCost
+                + (long) cost.inValues() * inValueCost
+                + (long) cost.leadingWildcards() * leadingWildcardCost
+                + (long) cost.unindexedOrders() * unindexedOrderCost
+                + cost.offset() / 1_000 * offsetCost;
+    }
+}
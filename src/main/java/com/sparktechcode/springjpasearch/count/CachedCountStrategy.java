@@ -0,0 +1,37 @@
+package com.sparktechcode.springjpasearch.count;
+
+import com.sparktechcode.springjpasearch.cache.SearchCache;
+import com.sparktechcode.springjpasearch.entities.BaseEntity;
+import com.sparktechcode.springjpasearch.services.SearchServiceFetcher;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Duration;
+
+public class CachedCountStrategy implements CountStrategy {
+
+    private final CountStrategy delegate;
+    private final SearchCache<SearchKey, SearchCount> cache;
+
+    public CachedCountStrategy(CountStrategy delegate, Duration timeToLive, int maxSize) {
+        this.delegate = delegate;
+        this.cache = new SearchCache<>(maxSize, timeToLive);
+    }
+
+    @Override
+    public <I, E extends BaseEntity<I>> SearchCount count(SearchServiceFetcher<I, E> fetcher, EntityManager entityManager, Specification<E> specification, SearchKey key) {
+        if (key == null) {
+            return delegate.count(fetcher, entityManager, specification, null);
+        }
+        return cache.computeIfAbsent(key, ignored -> delegate.count(fetcher, entityManager, specification, key));
+    }
+
+    @Override
+    public boolean isProbing() {
+        return delegate.isProbing();
+    }
+
+    public void invalidate() {
+        cache.clear();
+    }
+}
@@ -0,0 +1,21 @@
+package com.sparktechcode.springjpasearch.count;
+
+import com.sparktechcode.springjpasearch.entities.BaseEntity;
+import com.sparktechcode.springjpasearch.services.SearchServiceFetcher;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.jpa.domain.Specification;
+
+public class CappedCountStrategy implements CountStrategy {
+
+    private final long cap;
+
+    public CappedCountStrategy(long cap) {
+        this.cap = Math.max(0, Math.min(cap, Integer.MAX_VALUE - 1));
+    }
+
+    @Override
+    public <I, E extends BaseEntity<I>> SearchCount count(SearchServiceFetcher<I, E> fetcher, EntityManager entityManager, Specification<E> specification, SearchKey key) {
+        var size = fetcher.countBy(entityManager, specification, cap + 1);
+        return size > cap ? SearchCount.atLeast(cap) : SearchCount.exact(size);
+    }
+}
@@ -0,0 +1,33 @@
+package com.sparktechcode.springjpasearch.count;
+
+import com.sparktechcode.springjpasearch.entities.BaseEntity;
+import com.sparktechcode.springjpasearch.services.SearchServiceFetcher;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Duration;
+
+public interface CountStrategy {
+
+    <I, E extends BaseEntity<I>> SearchCount count(SearchServiceFetcher<I, E> fetcher, EntityManager entityManager, Specification<E> specification, SearchKey key);
+
+    default boolean isProbing() {
+        return false;
+    }
+
+    static CountStrategy exact() {
+        return ExactCountStrategy.INSTANCE;
+    }
+
+    static CountStrategy none() {
+        return NoCountStrategy.INSTANCE;
+    }
+
+    static CountStrategy capped(long cap) {
+        return new CappedCountStrategy(cap);
+    }
+
+    static CountStrategy cached(CountStrategy delegate, Duration timeToLive, int maxSize) {
+        return new CachedCountStrategy(delegate, timeToLive, maxSize);
+    }
+}
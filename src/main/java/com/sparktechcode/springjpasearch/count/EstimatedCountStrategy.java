@@ -0,0 +1,52 @@
+package com.sparktechcode.springjpasearch.count;
+
+import com.sparktechcode.springjpasearch.entities.BaseEntity;
+import com.sparktechcode.springjpasearch.services.SearchServiceFetcher;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+
+@RequiredArgsConstructor
+public class EstimatedCountStrategy implements CountStrategy {
+
+    private final String statisticsQuery;
+    private final String tableName;
+    private final long exactBelow;
+    private final CountStrategy fallback;
+
+    public static EstimatedCountStrategy postgres(String tableName, long exactBelow, CountStrategy fallback) {
+        return new EstimatedCountStrategy("select cast(reltuples as bigint) from pg_class where oid = to_regclass(cast(?1 as text))", tableName, exactBelow, fallback);
+    }
+
+    public static EstimatedCountStrategy mysql(String tableName, long exactBelow, CountStrategy fallback) {
+        return new EstimatedCountStrategy("select table_rows from information_schema.tables where table_schema = database() and table_name = ?1", tableName, exactBelow, fallback);
+    }
+
+    @Override
+    public <I, E extends BaseEntity<I>> SearchCount count(SearchServiceFetcher<I, E> fetcher, EntityManager entityManager, Specification<E> specification, SearchKey key) {
+        if (key == null || !key.isUnfiltered()) {
+            return fallback.count(fetcher, entityManager, specification, key);
+        }
+        var estimate = estimate(entityManager);
+        if (estimate < exactBelow) {
+            return SearchCount.exact(fetcher.countBy(entityManager, specification));
+        }
+        return SearchCount.estimated(estimate);
+    }
+
+    @Override
+    public boolean isProbing() {
+        return fallback.isProbing();
+    }
+
+    private long estimate(EntityManager entityManager) {
+        var result = entityManager
+                .createNativeQuery(statisticsQuery)
+                .setParameter(1, tableName)
+                .getResultList();
+        if (result.isEmpty() || !(result.get(0) instanceof Number number)) {
+            return -1;
+        }
+        return number.longValue();
+    }
+}
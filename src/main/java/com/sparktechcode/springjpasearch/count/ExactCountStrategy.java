@@ -0,0 +1,16 @@
+package com.sparktechcode.springjpasearch.count;
+
+import com.sparktechcode.springjpasearch.entities.BaseEntity;
+import com.sparktechcode.springjpasearch.services.SearchServiceFetcher;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.jpa.domain.Specification;
+
+public class ExactCountStrategy implements CountStrategy {
+
+    static final ExactCountStrategy INSTANCE = new ExactCountStrategy();
+
+    @Override
+    public <I, E extends BaseEntity<I>> SearchCount count(SearchServiceFetcher<I, E> fetcher, EntityManager entityManager, Specification<E> specification, SearchKey key) {
+        return SearchCount.exact(fetcher.countBy(entityManager, specification));
+    }
+}
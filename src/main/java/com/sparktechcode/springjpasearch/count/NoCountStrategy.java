@@ -0,0 +1,21 @@
+package com.sparktechcode.springjpasearch.count;
+
+import com.sparktechcode.springjpasearch.entities.BaseEntity;
+import com.sparktechcode.springjpasearch.services.SearchServiceFetcher;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.jpa.domain.Specification;
+
+public class NoCountStrategy implements CountStrategy {
+
+    static final NoCountStrategy INSTANCE = new NoCountStrategy();
+
+    @Override
+    public <I, E extends BaseEntity<I>> SearchCount count(SearchServiceFetcher<I, E> fetcher, EntityManager entityManager, Specification<E> specification, SearchKey key) {
+        return SearchCount.unknown();
+    }
+
+    @Override
+    public boolean isProbing() {
+        return true;
+    }
+}
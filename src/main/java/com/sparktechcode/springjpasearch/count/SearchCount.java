@@ -0,0 +1,24 @@
+package com.sparktechcode.springjpasearch.count;
+
+public record SearchCount(Long total, boolean exact) {
+
+    public static SearchCount exact(long total) {
+        return new SearchCount(total, true);
+    }
+
+    public static SearchCount atLeast(long total) {
+        return new SearchCount(total, false);
+    }
+
+    public static SearchCount estimated(long total) {
+        return new SearchCount(total, false);
+    }
+
+    public static SearchCount unknown() {
+        return new SearchCount(null, false);
+    }
+
+    public boolean isKnown() {
+        return total != null;
+    }
+}
@@ -0,0 +1,10 @@
+package com.sparktechcode.springjpasearch.count;
+
+import java.util.List;
+
+public record SearchKey(Class<?> entityClass, List<String> filters, String specification) {
+
+    public boolean isUnfiltered() {
+        return filters.isEmpty() && specification.isEmpty();
+    }
+}
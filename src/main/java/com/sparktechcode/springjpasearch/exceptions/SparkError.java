@@ -5,5 +5,9 @@ public enum SparkError {
     SERVER_ERROR,
     UNSUPPORTED_OPERATION,
     UNABLE_TO_FIND_ENTITY_CLASS,
-    UNEXPECTED_QUERY_PARAMETER
+    UNEXPECTED_QUERY_PARAMETER,
+    INVALID_CURSOR,
+    UNKNOWN_FIELD,
+    SEARCH_TIMEOUT,
+    QUERY_TOO_EXPENSIVE
 }
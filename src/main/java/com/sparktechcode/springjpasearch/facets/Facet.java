@@ -0,0 +1,6 @@
+package com.sparktechcode.springjpasearch.facets;
+
+import java.util.List;
+
+public record Facet(String field, List<FacetBucket> buckets, boolean truncated) {
+}
@@ -0,0 +1,4 @@
+package com.sparktechcode.springjpasearch.facets;
+
+public record FacetBucket(Object value, long count) {
+}
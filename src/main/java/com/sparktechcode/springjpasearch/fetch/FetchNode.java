@@ -0,0 +1,35 @@
+package com.sparktechcode.springjpasearch.fetch;
+
+import jakarta.persistence.criteria.FetchParent;
+import jakarta.persistence.criteria.JoinType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public record FetchNode(String name, boolean plural, List<FetchNode> children) {
+
+    public static void fetchSingular(FetchParent<?, ?> parent, List<FetchNode> nodes) {
+        for (var node : nodes) {
+            if (!node.plural()) {
+                fetchSingular(parent.fetch(node.name(), JoinType.LEFT), node.children());
+            }
+        }
+    }
+
+    public static List<List<FetchNode>> collections(List<FetchNode> nodes) {
+        var collections = new ArrayList<List<FetchNode>>();
+        addCollections(new ArrayList<>(), nodes, collections);
+        return collections;
+    }
+
+    private static void addCollections(List<FetchNode> owner, List<FetchNode> nodes, List<List<FetchNode>> collections) {
+        for (var node : nodes) {
+            var path = new ArrayList<>(owner);
+            path.add(node);
+            if (node.plural()) {
+                collections.add(List.copyOf(path));
+            }
+            addCollections(path, node.children(), collections);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.sparktechcode.springjpasearch.fetch;
+
+import com.sparktechcode.springjpasearch.cache.SearchCache;
+import com.sparktechcode.springjpasearch.exceptions.InternalServerException;
+import com.sparktechcode.springjpasearch.metadata.EntitySearchMetadata;
+import com.sparktechcode.springjpasearch.queries.FieldPath;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.sparktechcode.springjpasearch.exceptions.SparkError.SERVER_ERROR;
+
+public record FetchPlan(List<FieldPath> paths, boolean attributesIgnored) {
+
+    public static final FetchPlan NONE = new FetchPlan(List.of());
+
+    private static final SearchCache<ResolvedKey, List<FetchNode>> RESOLVED = new SearchCache<>(256);
+
+    public FetchPlan(List<FieldPath> paths) {
+        this(paths, false);
+    }
+
+    public static FetchPlan of(String... paths) {
+        return of(List.of(paths));
+    }
+
+    public static FetchPlan of(List<String> paths) {
+        return new FetchPlan(paths.stream().map(FieldPath::of).toList());
+    }
+
+    public static FetchPlan ofEntityGraph(List<String> attributes) {
+        // entity graphs accept basic attributes, they are loaded anyway and are skipped instead of rejected
+        return new FetchPlan(attributes.stream().map(FieldPath::of).toList(), true);
+    }
+
+    public FetchPlan and(String... paths) {
+        var combined = new ArrayList<>(this.paths);
+        for (var path : paths) {
+            combined.add(FieldPath.of(path));
+        }
+        return new FetchPlan(List.copyOf(combined), attributesIgnored);
+    }
+
+    public boolean isEmpty() {
+        return paths.isEmpty();
+    }
+
+    public List<FetchNode> resolve(EntitySearchMetadata metadata) {
+        if (metadata == null) {
+            throw new InternalServerException(SERVER_ERROR, "Fetch plans require entity search metadata.");
+        }
+        return RESOLVED.computeIfAbsent(new ResolvedKey(this, metadata.getEntityClass()), key -> resolveNodes(metadata));
+    }
+
+    public static void clearCache() {
+        RESOLVED.clear();
+    }
+
+    private List<FetchNode> resolveNodes(EntitySearchMetadata metadata) {
+        var nodes = new ArrayList<FetchNode>();
+        for (var path : paths) {
+            var attributes = metadata.resolveAll(path);
+            if (attributes == null) {
+                throw new InternalServerException(SERVER_ERROR, "Unknown fetch plan path: " + path.field());
+            }
+            if (attributesIgnored && attributes.stream().anyMatch(attribute -> !attribute.association())) {
+                continue;
+            }
+            List<FetchNode> children = nodes;
+            for (var attribute : attributes) {
+                if (!attribute.association()) {
+                    throw new InternalServerException(SERVER_ERROR, "Fetch plan path has to contain only associations: " + path.field());
+                }
+                var node = children.stream().filter(child -> child.name().equals(attribute.name())).findFirst().orElse(null);
+                if (node == null) {
+                    node = new FetchNode(attribute.name(), attribute.plural(), new ArrayList<>());
+                    children.add(node);
+                }
+                children = node.children();
+            }
+        }
+        return immutable(nodes);
+    }
+
+    private static List<FetchNode> immutable(List<FetchNode> nodes) {
+        return nodes.stream().map(node -> new FetchNode(node.name(), node.plural(), immutable(node.children()))).toList();
+    }
+
+    private record ResolvedKey(FetchPlan plan, Class<?> entityClass) {
+    }
+}
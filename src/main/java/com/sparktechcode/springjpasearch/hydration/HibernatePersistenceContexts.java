@@ -0,0 +1,17 @@
+package com.sparktechcode.springjpasearch.hydration;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+final class HibernatePersistenceContexts {
+
+    private HibernatePersistenceContexts() {
+    }
+
+    static <E> E findManaged(EntityManager entityManager, Class<E> entityClass, Object id) {
+        var session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        var persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(entityClass);
+        var entity = session.getPersistenceContextInternal().getEntity(session.generateEntityKey(id, persister));
+        return entityClass.isInstance(entity) ? entityClass.cast(entity) : null;
+    }
+}
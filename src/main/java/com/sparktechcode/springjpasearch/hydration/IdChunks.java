@@ -0,0 +1,40 @@
+package com.sparktechcode.springjpasearch.hydration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class IdChunks {
+
+    private IdChunks() {
+    }
+
+    public static <I> List<List<I>> split(List<I> ids, int maxChunkSize) {
+        var chunks = new ArrayList<List<I>>((ids.size() + maxChunkSize - 1) / maxChunkSize);
+        for (var from = 0; from < ids.size(); from += maxChunkSize) {
+            chunks.add(pad(ids.subList(from, Math.min(from + maxChunkSize, ids.size())), maxChunkSize));
+        }
+        return chunks;
+    }
+
+    public static <I> List<I> pad(List<I> ids, int maxChunkSize) {
+        var bucket = paddedSize(ids.size(), maxChunkSize);
+        if (ids.isEmpty() || ids.size() >= bucket) {
+            return ids;
+        }
+        var padded = new ArrayList<I>(bucket);
+        padded.addAll(ids);
+        var last = ids.get(ids.size() - 1);
+        while (padded.size() < bucket) {
+            padded.add(last);
+        }
+        return padded;
+    }
+
+    public static int paddedSize(int size, int maxChunkSize) {
+        return Math.max(size, Math.min(bucketSize(size), maxChunkSize));
+    }
+
+    public static int bucketSize(int size) {
+        return size <= 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+    }
+}
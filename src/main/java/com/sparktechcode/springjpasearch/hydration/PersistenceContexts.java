@@ -0,0 +1,28 @@
+package com.sparktechcode.springjpasearch.hydration;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.util.ClassUtils;
+
+public final class PersistenceContexts {
+
+    private static final boolean HIBERNATE_PRESENT = ClassUtils.isPresent("org.hibernate.engine.spi.SharedSessionContractImplementor", PersistenceContexts.class.getClassLoader());
+
+    private PersistenceContexts() {
+    }
+
+    public static <E> E findManaged(EntityManager entityManager, Class<E> entityClass, Object id) {
+        if (!HIBERNATE_PRESENT || !entityManager.isJoinedToTransaction()) {
+            return null;
+        }
+        var entity = HibernatePersistenceContexts.findManaged(entityManager, entityClass, id);
+        return entity != null && entityManager.contains(entity) ? entity : null;
+    }
+
+    public static <E> E findCached(EntityManager entityManager, Class<E> entityClass, Object id) {
+        var cache = entityManager.getEntityManagerFactory().getCache();
+        if (cache != null && cache.contains(entityClass, id)) {
+            return entityManager.find(entityClass, id);
+        }
+        return null;
+    }
+}
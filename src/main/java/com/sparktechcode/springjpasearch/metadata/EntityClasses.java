@@ -0,0 +1,28 @@
+package com.sparktechcode.springjpasearch.metadata;
+
+import com.sparktechcode.springjpasearch.exceptions.InternalServerException;
+
+import java.lang.reflect.ParameterizedType;
+
+import static com.sparktechcode.springjpasearch.exceptions.SparkError.UNABLE_TO_FIND_ENTITY_CLASS;
+
+public final class EntityClasses {
+
+    private static final ClassValue<Class<?>> ENTITY_CLASSES = new ClassValue<>() {
+        @Override
+        protected Class<?> computeValue(Class<?> serviceClass) {
+            try {
+                return (Class<?>) ((ParameterizedType) serviceClass.getGenericInterfaces()[0]).getActualTypeArguments()[1];
+            } catch (Exception e) {
+                throw new InternalServerException(UNABLE_TO_FIND_ENTITY_CLASS, "Unable to find entity class, you can provide entity class if you override getEntityClass() method.", e);
+            }
+        }
+    };
+
+    private EntityClasses() {
+    }
+
+    public static Class<?> of(Class<?> serviceClass) {
+        return ENTITY_CLASSES.get(serviceClass);
+    }
+}
@@ -0,0 +1,142 @@
+package com.sparktechcode.springjpasearch.metadata;
+
+import com.sparktechcode.springjpasearch.exceptions.BadRequestException;
+import com.sparktechcode.springjpasearch.queries.CompiledSearch;
+import com.sparktechcode.springjpasearch.queries.FieldPath;
+import jakarta.persistence.metamodel.*;
+import lombok.Getter;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.sparktechcode.springjpasearch.exceptions.SparkError.UNKNOWN_FIELD;
+
+@Getter
+public class EntitySearchMetadata {
+
+    private static final Map<Class<?>, EntitySearchMetadata> METADATA = new ConcurrentHashMap<>();
+
+    private final Class<?> entityClass;
+    private final EntityType<?> entityType;
+    private final SearchAttribute idAttribute;
+    private final Map<ManagedType<?>, Map<String, SearchAttribute>> index;
+
+    private EntitySearchMetadata(Metamodel metamodel, Class<?> entityClass) {
+        this.entityClass = entityClass;
+        this.entityType = metamodel.entity(entityClass);
+        this.index = buildIndex(entityType);
+        this.idAttribute = entityType.getSingularAttributes().stream()
+                .filter(SingularAttribute::isId)
+                .findFirst()
+                .map(attribute -> index.get(entityType).get(attribute.getName()))
+                .orElse(null);
+    }
+
+    public static EntitySearchMetadata of(Metamodel metamodel, Class<?> entityClass) {
+        return METADATA.computeIfAbsent(entityClass, type -> new EntitySearchMetadata(metamodel, type));
+    }
+
+    public Map<String, SearchAttribute> getAttributes() {
+        return index.get(entityType);
+    }
+
+    public SearchAttribute resolve(FieldPath path) {
+        var attributes = resolveAll(path);
+        return attributes == null ? null : attributes.get(attributes.size() - 1);
+    }
+
+    public List<SearchAttribute> resolveAll(FieldPath path) {
+        var attributes = getAttributes();
+        var resolved = new ArrayList<SearchAttribute>(path.names().size());
+        for (var name : path.names()) {
+            var attribute = attributes == null ? null : attributes.get(name);
+            if (attribute == null) {
+                return null;
+            }
+            resolved.add(attribute);
+            attributes = attribute.isBasic() ? null : index.get(attribute.target());
+        }
+        return resolved.isEmpty() ? null : resolved;
+    }
+
+    public int getCollectionIndex(FieldPath path) {
+        var attributes = resolveAll(path);
+        if (attributes == null) {
+            return -1;
+        }
+        for (var i = 0; i < attributes.size(); i++) {
+            if (attributes.get(i).plural()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean isIndexed(FieldPath path) {
+        var attributes = resolveAll(path);
+        if (attributes == null) {
+            return false;
+        }
+        var owner = attributes.size() == 1 ? entityClass : attributes.get(attributes.size() - 2).javaType();
+        return IndexedColumns.isIndexed(owner, attributes.get(attributes.size() - 1).name());
+    }
+
+    public Set<Class<?>> getEntityClasses(CompiledSearch search) {
+        var entityClasses = new HashSet<Class<?>>();
+        entityClasses.add(entityClass);
+        var paths = new ArrayList<FieldPath>();
+        search.filters().forEach(group -> group.conditions().forEach(condition -> paths.add(condition.getPath())));
+        search.orders().forEach(order -> paths.add(order.path()));
+        for (var path : paths) {
+            var attributes = resolveAll(path);
+            if (attributes != null) {
+                attributes.stream().filter(SearchAttribute::association).forEach(attribute -> entityClasses.add(attribute.javaType()));
+            }
+        }
+        return Set.copyOf(entityClasses);
+    }
+
+    public void validate(CompiledSearch search) {
+        search.filters().forEach(group -> group.conditions().forEach(condition -> validate(condition.getPath())));
+        search.orders().forEach(order -> validate(order.path()));
+    }
+
+    public SearchAttribute validate(FieldPath path) {
+        var attribute = resolve(path);
+        if (attribute == null) {
+            throw new BadRequestException(UNKNOWN_FIELD, "Unknown field: " + path.field());
+        }
+        return attribute;
+    }
+
+    private static Map<ManagedType<?>, Map<String, SearchAttribute>> buildIndex(ManagedType<?> root) {
+        var index = new HashMap<ManagedType<?>, Map<String, SearchAttribute>>();
+        var queue = new ArrayDeque<ManagedType<?>>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            var type = queue.poll();
+            if (index.containsKey(type)) {
+                continue;
+            }
+            var attributes = new HashMap<String, SearchAttribute>();
+            for (var attribute : type.getAttributes()) {
+                var searchAttribute = toSearchAttribute(attribute);
+                attributes.put(searchAttribute.name(), searchAttribute);
+                if (!searchAttribute.isBasic() && !index.containsKey(searchAttribute.target())) {
+                    queue.add(searchAttribute.target());
+                }
+            }
+            index.put(type, Map.copyOf(attributes));
+        }
+        return Map.copyOf(index);
+    }
+
+    private static SearchAttribute toSearchAttribute(Attribute<?, ?> attribute) {
+        if (attribute instanceof PluralAttribute<?, ?, ?> plural) {
+            var element = plural.getElementType();
+            return new SearchAttribute(attribute.getName(), element.getJavaType(), attribute.isAssociation(), true, element instanceof ManagedType<?> managed ? managed : null);
+        }
+        var type = ((SingularAttribute<?, ?>) attribute).getType();
+        return new SearchAttribute(attribute.getName(), attribute.getJavaType(), attribute.isAssociation(), false, type instanceof ManagedType<?> managed ? managed : null);
+    }
+}
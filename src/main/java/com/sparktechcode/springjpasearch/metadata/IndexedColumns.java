@@ -0,0 +1,117 @@
+package com.sparktechcode.springjpasearch.metadata;
+
+import jakarta.persistence.*;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public final class IndexedColumns {
+
+    private static final ClassValue<Set<String>> COLUMNS = new ClassValue<>() {
+        @Override
+        protected Set<String> computeValue(Class<?> type) {
+            return findIndexedColumns(type);
+        }
+    };
+
+    private static final ClassValue<List<List<String>>> INDEXES = new ClassValue<>() {
+        @Override
+        protected List<List<String>> computeValue(Class<?> type) {
+            return findIndexes(type);
+        }
+    };
+
+    private IndexedColumns() {
+    }
+
+    public static List<List<String>> getIndexes(Class<?> entityClass) {
+        return INDEXES.get(entityClass);
+    }
+
+    public static boolean isIndexed(Class<?> entityClass, String fieldName) {
+        var columns = COLUMNS.get(entityClass);
+        var field = findField(entityClass, fieldName);
+        if (field != null && (field.isAnnotationPresent(Id.class) || field.isAnnotationPresent(EmbeddedId.class))) {
+            return true;
+        }
+        if (field != null) {
+            var column = field.getAnnotation(Column.class);
+            if (column != null && column.unique()) {
+                return true;
+            }
+            if (column != null && !column.name().isEmpty() && columns.contains(normalize(column.name()))) {
+                return true;
+            }
+            var joinColumn = field.getAnnotation(JoinColumn.class);
+            if (joinColumn != null && !joinColumn.name().isEmpty() && columns.contains(normalize(joinColumn.name()))) {
+                return true;
+            }
+        }
+        return columns.contains(normalize(fieldName));
+    }
+
+    private static Set<String> findIndexedColumns(Class<?> type) {
+        var columns = new HashSet<String>();
+        for (var current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            var table = current.getAnnotation(Table.class);
+            if (table == null) {
+                continue;
+            }
+            for (var index : table.indexes()) {
+                addFirstColumn(index.columnList(), columns);
+            }
+            for (var constraint : table.uniqueConstraints()) {
+                if (constraint.columnNames().length > 0) {
+                    columns.add(normalize(constraint.columnNames()[0]));
+                }
+            }
+        }
+        return Set.copyOf(columns);
+    }
+
+    private static List<List<String>> findIndexes(Class<?> type) {
+        var indexes = new ArrayList<List<String>>();
+        for (var current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            var table = current.getAnnotation(Table.class);
+            if (table == null) {
+                continue;
+            }
+            for (var index : table.indexes()) {
+                indexes.add(Arrays.stream(index.columnList().split(","))
+                        .map(column -> column.trim().split("\\s+")[0])
+                        .filter(column -> !column.isEmpty())
+                        .map(IndexedColumns::normalize)
+                        .toList());
+            }
+            for (var constraint : table.uniqueConstraints()) {
+                indexes.add(Arrays.stream(constraint.columnNames()).map(IndexedColumns::normalize).toList());
+            }
+        }
+        return List.copyOf(indexes);
+    }
+
+    private static void addFirstColumn(String columnList, Set<String> columns) {
+        var first = columnList.split(",")[0].trim().split("\\s+")[0];
+        if (!first.isEmpty()) {
+            columns.add(normalize(first));
+        }
+    }
+
+    private static Field findField(Class<?> type, String name) {
+        for (var current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            try {
+                return current.getDeclaredField(name);
+            } catch (NoSuchFieldException ignored) {
+            }
+        }
+        return null;
+    }
+
+    public static String normalize(String name) {
+        return name.replace("_", "").replace("\"", "").replace("`", "").toLowerCase();
+    }
+}
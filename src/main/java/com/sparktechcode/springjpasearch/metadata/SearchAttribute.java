@@ -0,0 +1,10 @@
+package com.sparktechcode.springjpasearch.metadata;
+
+import jakarta.persistence.metamodel.ManagedType;
+
+public record SearchAttribute(String name, Class<?> javaType, boolean association, boolean plural, ManagedType<?> target) {
+
+    public boolean isBasic() {
+        return target == null;
+    }
+}
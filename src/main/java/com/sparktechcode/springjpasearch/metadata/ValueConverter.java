@@ -0,0 +1,7 @@
+package com.sparktechcode.springjpasearch.metadata;
+
+@FunctionalInterface
+public interface ValueConverter {
+
+    Object convert(String value);
+}
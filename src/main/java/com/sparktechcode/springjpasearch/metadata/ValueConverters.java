@@ -0,0 +1,77 @@
+package com.sparktechcode.springjpasearch.metadata;
+
+import java.io.Serializable;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.time.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+public final class ValueConverters {
+
+    private static final Map<Class<?>, ValueConverter> CONVERTERS = new LinkedHashMap<>();
+
+    private static final ClassValue<ValueConverter> RESOLVED = new ClassValue<>() {
+        @Override
+        protected ValueConverter computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
+
+    static {
+        register(String.class, value -> value);
+        register(Boolean.class, Boolean::valueOf);
+        register(boolean.class, Boolean::valueOf);
+        register(Double.class, Double::valueOf);
+        register(double.class, Double::valueOf);
+        register(Float.class, Float::valueOf);
+        register(float.class, Float::valueOf);
+        register(BigDecimal.class, BigDecimal::new);
+        register(Long.class, Long::valueOf);
+        register(long.class, Long::valueOf);
+        register(Integer.class, Integer::valueOf);
+        register(int.class, Integer::valueOf);
+        register(LocalDate.class, LocalDate::parse);
+        register(LocalTime.class, LocalTime::parse);
+        register(LocalDateTime.class, LocalDateTime::parse);
+        register(OffsetDateTime.class, OffsetDateTime::parse);
+        register(Instant.class, Instant::parse);
+        register(UUID.class, UUID::fromString);
+    }
+
+    private ValueConverters() {
+    }
+
+    public static ValueConverter forType(Class<?> type) {
+        return RESOLVED.get(type);
+    }
+
+    public static Class<?> boxed(Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+
+    private static void register(Class<?> type, ValueConverter converter) {
+        CONVERTERS.put(type, converter);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ValueConverter resolve(Class<?> type) {
+        var converter = CONVERTERS.get(type);
+        if (converter != null) {
+            return converter;
+        }
+        if (type.isEnum()) {
+            return value -> Enum.valueOf((Class) type, value);
+        }
+        for (var entry : CONVERTERS.entrySet()) {
+            if (entry.getKey().isAssignableFrom(type)) {
+                return entry.getValue();
+            }
+        }
+        if (Serializable.class.isAssignableFrom(type)) {
+            return value -> value;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,47 @@
+package com.sparktechcode.springjpasearch.metrics;
+
+import com.sparktechcode.springjpasearch.queries.CompiledSearch;
+
+import java.util.List;
+
+class CompositeSearchMetrics implements SearchMetrics {
+
+    private final List<SearchMetrics> delegates;
+
+    CompositeSearchMetrics(List<SearchMetrics> delegates) {
+        this.delegates = delegates;
+    }
+
+    @Override
+    public Timing start(SearchPhase phase, Class<?> entityClass) {
+        var timings = delegates.stream().map(metrics -> metrics.start(phase, entityClass)).toList();
+        return new Timing() {
+            @Override
+            public void stop(String shape) {
+                for (var i = timings.size() - 1; i >= 0; i--) {
+                    timings.get(i).stop(shape);
+                }
+            }
+
+            @Override
+            public void error(Throwable error) {
+                timings.forEach(timing -> timing.error(error));
+            }
+        };
+    }
+
+    @Override
+    public void recordPage(Class<?> entityClass, String shape, int size, Long total) {
+        delegates.forEach(metrics -> metrics.recordPage(entityClass, shape, size, total));
+    }
+
+    @Override
+    public void recordSearch(Class<?> entityClass, CompiledSearch search) {
+        delegates.forEach(metrics -> metrics.recordSearch(entityClass, search));
+    }
+
+    @Override
+    public void recordError(Class<?> entityClass, String shape, Throwable error) {
+        delegates.forEach(metrics -> metrics.recordError(entityClass, shape, error));
+    }
+}
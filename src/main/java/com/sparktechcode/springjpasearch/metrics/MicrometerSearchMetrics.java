@@ -0,0 +1,64 @@
+package com.sparktechcode.springjpasearch.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+public class MicrometerSearchMetrics implements SearchMetrics {
+
+    public static final String PHASE_TIMER = "spring.jpa.search.phase";
+    public static final String PAGE_SIZE = "spring.jpa.search.page.size";
+    public static final String TOTAL = "spring.jpa.search.total";
+    public static final int DEFAULT_MAX_SHAPES = 100;
+
+    private final MeterRegistry registry;
+    private final ShapeTags shapes;
+
+    public MicrometerSearchMetrics(MeterRegistry registry) {
+        this(registry, DEFAULT_MAX_SHAPES);
+    }
+
+    public MicrometerSearchMetrics(MeterRegistry registry, int maxShapes) {
+        this.registry = registry;
+        this.shapes = new ShapeTags(maxShapes);
+    }
+
+    @Override
+    public Timing start(SearchPhase phase, Class<?> entityClass) {
+        var sample = Timer.start(registry);
+        return new Timing() {
+            private String outcome = "success";
+
+            @Override
+            public void stop(String shape) {
+                sample.stop(Timer.builder(PHASE_TIMER)
+                        .tag("entity", entityClass.getSimpleName())
+                        .tag("shape", shapes.tag(shape))
+                        .tag("phase", phase.tagValue())
+                        .tag("outcome", outcome)
+                        .register(registry));
+            }
+
+            @Override
+            public void error(Throwable error) {
+                outcome = error.getClass().getSimpleName();
+            }
+        };
+    }
+
+    @Override
+    public void recordPage(Class<?> entityClass, String shape, int size, Long total) {
+        DistributionSummary.builder(PAGE_SIZE)
+                .tag("entity", entityClass.getSimpleName())
+                .tag("shape", shapes.tag(shape))
+                .register(registry)
+                .record(size);
+        if (total != null) {
+            DistributionSummary.builder(TOTAL)
+                    .tag("entity", entityClass.getSimpleName())
+                    .tag("shape", shapes.tag(shape))
+                    .register(registry)
+                    .record(total);
+        }
+    }
+}
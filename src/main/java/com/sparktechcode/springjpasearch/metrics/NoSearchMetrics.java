@@ -0,0 +1,25 @@
+package com.sparktechcode.springjpasearch.metrics;
+
+import java.util.function.Supplier;
+
+class NoSearchMetrics implements SearchMetrics {
+
+    static final NoSearchMetrics INSTANCE = new NoSearchMetrics();
+
+    private static final Timing TIMING = shape -> {
+    };
+
+    @Override
+    public Timing start(SearchPhase phase, Class<?> entityClass) {
+        return TIMING;
+    }
+
+    @Override
+    public void recordPage(Class<?> entityClass, String shape, int size, Long total) {
+    }
+
+    @Override
+    public <T> T time(SearchPhase phase, Class<?> entityClass, String shape, Supplier<T> work) {
+        return work.get();
+    }
+}
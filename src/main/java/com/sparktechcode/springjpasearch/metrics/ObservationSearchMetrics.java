@@ -0,0 +1,39 @@
+package com.sparktechcode.springjpasearch.metrics;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+public class ObservationSearchMetrics implements SearchMetrics {
+
+    public static final String OBSERVATION_PREFIX = "spring.jpa.search.";
+
+    private final ObservationRegistry registry;
+
+    public ObservationSearchMetrics(ObservationRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Timing start(SearchPhase phase, Class<?> entityClass) {
+        var observation = Observation.createNotStarted(OBSERVATION_PREFIX + phase.tagValue(), registry)
+                .lowCardinalityKeyValue("entity", entityClass.getSimpleName())
+                .start();
+        var scope = observation.openScope();
+        return new Timing() {
+            @Override
+            public void stop(String shape) {
+                scope.close();
+                observation.highCardinalityKeyValue("shape", shape).stop();
+            }
+
+            @Override
+            public void error(Throwable error) {
+                observation.error(error);
+            }
+        };
+    }
+
+    @Override
+    public void recordPage(Class<?> entityClass, String shape, int size, Long total) {
+    }
+}
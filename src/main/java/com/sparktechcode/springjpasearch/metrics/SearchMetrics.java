@@ -0,0 +1,47 @@
+package com.sparktechcode.springjpasearch.metrics;
+
+import com.sparktechcode.springjpasearch.queries.CompiledSearch;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+public interface SearchMetrics {
+
+    Timing start(SearchPhase phase, Class<?> entityClass);
+
+    void recordPage(Class<?> entityClass, String shape, int size, Long total);
+
+    default void recordSearch(Class<?> entityClass, CompiledSearch search) {
+    }
+
+    default void recordError(Class<?> entityClass, String shape, Throwable error) {
+    }
+
+    default <T> T time(SearchPhase phase, Class<?> entityClass, String shape, Supplier<T> work) {
+        var timing = start(phase, entityClass);
+        try {
+            return work.get();
+        } catch (RuntimeException e) {
+            timing.error(e);
+            throw e;
+        } finally {
+            timing.stop(shape);
+        }
+    }
+
+    static SearchMetrics none() {
+        return NoSearchMetrics.INSTANCE;
+    }
+
+    static SearchMetrics of(SearchMetrics... metrics) {
+        return metrics.length == 1 ? metrics[0] : new CompositeSearchMetrics(List.of(metrics));
+    }
+
+    interface Timing {
+
+        void stop(String shape);
+
+        default void error(Throwable error) {
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.sparktechcode.springjpasearch.metrics;
+
+public enum SearchPhase {
+    PARSE,
+    SPECIFICATION,
+    IDS,
+    COUNT,
+    HYDRATE,
+    FACETS;
+
+    public String tagValue() {
+        return name().toLowerCase();
+    }
+}
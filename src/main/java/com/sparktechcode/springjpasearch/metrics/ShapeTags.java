@@ -0,0 +1,29 @@
+package com.sparktechcode.springjpasearch.metrics;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+class ShapeTags {
+
+    static final String OTHER = "other";
+
+    private final int maxShapes;
+    private final Set<String> shapes = ConcurrentHashMap.newKeySet();
+
+    ShapeTags(int maxShapes) {
+        this.maxShapes = maxShapes;
+    }
+
+    String tag(String shape) {
+        if (shapes.contains(shape)) {
+            return shape;
+        }
+        synchronized (shapes) {
+            if (shapes.size() < maxShapes) {
+                shapes.add(shape);
+                return shape;
+            }
+        }
+        return OTHER;
+    }
+}
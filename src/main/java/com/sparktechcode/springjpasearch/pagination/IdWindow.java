@@ -0,0 +1,44 @@
+package com.sparktechcode.springjpasearch.pagination;
+
+import com.sparktechcode.springjpasearch.count.SearchCount;
+import lombok.Getter;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+@Getter
+public class IdWindow<T> {
+
+    private final List<T> content;
+    private final Pageable pageable;
+    private volatile SearchCount count;
+
+    public IdWindow(List<T> content, Pageable pageable) {
+        this.content = content;
+        this.pageable = pageable;
+    }
+
+    public List<T> getPage(Pageable page) {
+        var from = (int) (page.getOffset() - pageable.getOffset());
+        var to = Math.min(content.size(), from + page.getPageSize());
+        return from < to ? content.subList(from, to) : List.of();
+    }
+
+    public boolean hasNext(Pageable page) {
+        return content.size() > page.getOffset() - pageable.getOffset() + page.getPageSize();
+    }
+
+    public boolean isLastPage(Pageable page) {
+        return page.getOffset() + page.getPageSize() >= pageable.getOffset() + pageable.getPageSize();
+    }
+
+    public SearchCount count(Supplier<SearchCount> counter) {
+        var current = count;
+        if (current == null) {
+            current = counter.get();
+            count = current;
+        }
+        return current;
+    }
+}
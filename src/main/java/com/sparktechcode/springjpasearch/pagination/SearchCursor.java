@@ -0,0 +1,44 @@
+package com.sparktechcode.springjpasearch.pagination;
+
+import com.sparktechcode.springjpasearch.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static com.sparktechcode.springjpasearch.exceptions.SparkError.INVALID_CURSOR;
+
+public final class SearchCursor {
+
+    private static final String SEPARATOR = ".";
+    private static final String NULL_VALUE = "~";
+
+    private SearchCursor() {
+    }
+
+    public static String encode(List<?> values) {
+        var parts = new ArrayList<String>(values.size());
+        for (var value : values) {
+            if (value == null) {
+                parts.add(NULL_VALUE);
+            } else {
+                var text = value instanceof Enum<?> item ? item.name() : value.toString();
+                parts.add(Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8)));
+            }
+        }
+        return String.join(SEPARATOR, parts);
+    }
+
+    public static List<String> decode(String cursor) {
+        try {
+            var values = new ArrayList<String>();
+            for (var part : cursor.split("\\" + SEPARATOR, -1)) {
+                values.add(NULL_VALUE.equals(part) ? null : new String(Base64.getUrlDecoder().decode(part), StandardCharsets.UTF_8));
+            }
+            return values;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(INVALID_CURSOR, "Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.sparktechcode.springjpasearch.pagination;
+
+import lombok.Getter;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+@Getter
+public class SearchPage<T> extends PageImpl<T> {
+
+    private final boolean totalExact;
+    private final String nextCursor;
+
+    public SearchPage(List<T> content, Pageable pageable, long total, boolean totalExact) {
+        this(content, pageable, total, totalExact, null);
+    }
+
+    public SearchPage(List<T> content, Pageable pageable, long total, boolean totalExact, String nextCursor) {
+        super(content, pageable, total);
+        this.totalExact = totalExact;
+        this.nextCursor = nextCursor;
+    }
+
+    public <U> SearchPage<U> withContent(List<U> content) {
+        return new SearchPage<>(content, getPageable(), getTotalElements(), totalExact, nextCursor);
+    }
+}
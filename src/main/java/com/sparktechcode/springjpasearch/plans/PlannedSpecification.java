@@ -0,0 +1,24 @@
+package com.sparktechcode.springjpasearch.plans;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+public record PlannedSpecification<E>(Object plan, Specification<E> specification) implements Specification<E> {
+
+    @Override
+    public Predicate toPredicate(Root<E> root, CriteriaQuery<?> query, CriteriaBuilder builder) {
+        return specification.toPredicate(root, query, builder);
+    }
+
+    public static Object planOf(Specification<?> specification) {
+        return specification instanceof PlannedSpecification<?> planned ? planned.plan() : null;
+    }
+
+    public static <E> Specification<E> wrap(Specification<?> planned, Specification<E> specification) {
+        var plan = planOf(planned);
+        return plan == null ? specification : new PlannedSpecification<>(plan, specification);
+    }
+}
@@ -0,0 +1,31 @@
+package com.sparktechcode.springjpasearch.plans;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.CockroachDialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.query.sqm.NodeBuilder;
+import org.hibernate.type.StandardBasicTypes;
+
+public class SearchFunctions implements FunctionContributor {
+
+    public static final String IN_ARRAY = "search_in_array";
+
+    @Override
+    public void contributeFunctions(FunctionContributions contributions) {
+        var dialect = contributions.getDialect();
+        if (dialect instanceof PostgreSQLDialect || dialect instanceof CockroachDialect || dialect instanceof H2Dialect) {
+            contributions.getFunctionRegistry()
+                    .patternDescriptorBuilder(IN_ARRAY, "(?1=any(?2))")
+                    .setExactArgumentCount(2)
+                    .setInvariantType(contributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN))
+                    .register();
+        }
+    }
+
+    public static boolean isRegistered(CriteriaBuilder builder, String name) {
+        return builder instanceof NodeBuilder nodeBuilder && nodeBuilder.getQueryEngine().getSqmFunctionRegistry().findFunctionDescriptor(name) != null;
+    }
+}
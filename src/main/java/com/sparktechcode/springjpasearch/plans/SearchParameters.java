@@ -0,0 +1,79 @@
+package com.sparktechcode.springjpasearch.plans;
+
+import jakarta.persistence.Parameter;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.ParameterExpression;
+import org.hibernate.query.BindableType;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.sqm.NodeBuilder;
+import org.hibernate.query.sqm.tree.expression.JpaCriteriaParameter;
+import org.hibernate.query.sqm.tree.expression.SqmExpression;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+public final class SearchParameters {
+
+    private static final ThreadLocal<SearchParameters> CURRENT = new ThreadLocal<>();
+
+    private final List<ParameterExpression<?>> parameters = new ArrayList<>();
+    private final List<Class<?>> types = new ArrayList<>();
+    private final List<Object> values = new ArrayList<>();
+
+    public static <T> T collect(SearchParameters parameters, Supplier<T> work) {
+        var previous = CURRENT.get();
+        CURRENT.set(parameters);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public static <T> Expression<T> bind(CriteriaBuilder builder, T value) {
+        return bind(builder, null, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Expression<T> bind(CriteriaBuilder builder, Expression<?> target, T value) {
+        var current = CURRENT.get();
+        if (current == null) {
+            return builder instanceof HibernateCriteriaBuilder hibernate ? hibernate.value(value) : builder.literal(value);
+        }
+        var type = value == null ? Object.class : value instanceof Enum<?> constant ? constant.getDeclaringClass() : value.getClass();
+        var parameter = target instanceof SqmExpression<?> expression && expression.getNodeType() != null && builder instanceof NodeBuilder nodeBuilder
+                ? new JpaCriteriaParameter<>(null, (BindableType<T>) expression.getNodeType(), false, nodeBuilder)
+                : (ParameterExpression<T>) builder.parameter(type);
+        current.parameters.add(parameter);
+        current.types.add(type);
+        current.values.add(value);
+        return parameter;
+    }
+
+    public List<ParameterExpression<?>> getParameters() {
+        return parameters;
+    }
+
+    public List<Class<?>> getTypes() {
+        return types;
+    }
+
+    public <T> TypedQuery<T> bindTo(TypedQuery<T> query) {
+        return bindTo(query, parameters);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> TypedQuery<T> bindTo(TypedQuery<T> query, List<ParameterExpression<?>> targets) {
+        for (var i = 0; i < targets.size(); i++) {
+            query.setParameter((Parameter<Object>) targets.get(i), values.get(i));
+        }
+        return query;
+    }
+}
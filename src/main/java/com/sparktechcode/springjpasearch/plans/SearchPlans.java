@@ -0,0 +1,78 @@
+package com.sparktechcode.springjpasearch.plans;
+
+import com.sparktechcode.springjpasearch.cache.SearchCache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.ParameterExpression;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.query.sqm.tree.SqmStatement;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.function.Supplier;
+
+public final class SearchPlans {
+
+    private static final SearchCache<Key, SearchPlan> CACHE = new SearchCache<>(1024);
+    private static final SearchPlan NOT_REUSABLE = new SearchPlan(null, List.of(), List.of());
+
+    private SearchPlans() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> TypedQuery<T> createQuery(EntityManager entityManager, Key key, Supplier<CriteriaQuery<T>> criteria) {
+        var parameters = new SearchParameters();
+        var query = SearchParameters.collect(parameters, criteria);
+        if (key == null || !entityManager.isJoinedToTransaction()) {
+            return parameters.bindTo(entityManager.createQuery(query));
+        }
+        var plan = CACHE.get(key);
+        if (plan == null) {
+            plan = isReusable(query, parameters) ? new SearchPlan(query, List.copyOf(parameters.getParameters()), List.copyOf(parameters.getTypes())) : NOT_REUSABLE;
+            CACHE.put(key, plan);
+        }
+        if (plan == NOT_REUSABLE || !plan.types().equals(parameters.getTypes())) {
+            return parameters.bindTo(entityManager.createQuery(query));
+        }
+        return parameters.bindTo(createSharedQuery(entityManager, (CriteriaQuery<T>) plan.query()), plan.parameters());
+    }
+
+    public static Key key(EntityManager entityManager, Class<?> owner, String kind, Object plan, Object... details) {
+        if (plan == null) {
+            return null;
+        }
+        return new Key(entityManager.getEntityManagerFactory(), owner, kind, plan, List.of(details));
+    }
+
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    private static <T> TypedQuery<T> createSharedQuery(EntityManager entityManager, CriteriaQuery<T> query) {
+        var session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        var copyTree = session.isCriteriaCopyTreeEnabled();
+        session.setCriteriaCopyTreeEnabled(false);
+        try {
+            return session.createQuery(query);
+        } finally {
+            session.setCriteriaCopyTreeEnabled(copyTree);
+        }
+    }
+
+    private static boolean isReusable(CriteriaQuery<?> query, SearchParameters parameters) {
+        if (!(query instanceof SqmStatement<?> statement)) {
+            return false;
+        }
+        var collected = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        collected.addAll(parameters.getParameters());
+        return collected.containsAll(statement.getSqmParameters());
+    }
+
+    public record Key(Object factory, Class<?> owner, String kind, Object plan, List<Object> details) {
+    }
+
+    private record SearchPlan(CriteriaQuery<?> query, List<ParameterExpression<?>> parameters, List<Class<?>> types) {
+    }
+}
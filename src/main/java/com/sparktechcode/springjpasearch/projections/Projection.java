@@ -0,0 +1,84 @@
+package com.sparktechcode.springjpasearch.projections;
+
+import com.sparktechcode.springjpasearch.exceptions.InternalServerException;
+import com.sparktechcode.springjpasearch.queries.FieldPath;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static com.sparktechcode.springjpasearch.exceptions.SparkError.SERVER_ERROR;
+
+public record Projection<P>(List<FieldPath> fields, Function<Object[], P> factory) {
+
+    private static final ClassValue<Projection<?>> RECORDS = new ClassValue<>() {
+        @Override
+        protected Projection<?> computeValue(Class<?> type) {
+            return forRecord(type);
+        }
+    };
+
+    @SuppressWarnings("unchecked")
+    public static <P> Projection<P> of(Class<P> type) {
+        return (Projection<P>) RECORDS.get(type);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <P> Projection<P> of(Class<P> type, List<String> fields) {
+        var constructor = Arrays.stream(type.getDeclaredConstructors())
+                .filter(item -> item.getParameterCount() == fields.size())
+                .findFirst()
+                .orElseThrow(() -> new InternalServerException(SERVER_ERROR, "Projection " + type.getName() + " has no constructor with " + fields.size() + " parameters."));
+        constructor.trySetAccessible();
+        return new Projection<>(fields.stream().map(FieldPath::of).toList(), values -> newInstance((Constructor<P>) constructor, values));
+    }
+
+    public static Projection<Map<String, Object>> map(List<String> fields) {
+        return new Projection<>(fields.stream().map(FieldPath::of).toList(), values -> {
+            var result = new LinkedHashMap<String, Object>(fields.size() * 2);
+            for (var i = 0; i < values.length; i++) {
+                result.put(fields.get(i), values[i]);
+            }
+            return result;
+        });
+    }
+
+    public P create(Object[] values) {
+        return factory.apply(values);
+    }
+
+    private static <P> Projection<P> forRecord(Class<P> type) {
+        if (!type.isRecord()) {
+            throw new InternalServerException(SERVER_ERROR, "Projection " + type.getName() + " has to be a record, or fields have to be provided.");
+        }
+        var components = type.getRecordComponents();
+        var fields = Arrays.stream(components).map(Projection::toField).toList();
+        try {
+            var constructor = type.getDeclaredConstructor(Arrays.stream(components).map(RecordComponent::getType).toArray(Class<?>[]::new));
+            constructor.trySetAccessible();
+            return new Projection<>(fields, values -> newInstance(constructor, values));
+        } catch (NoSuchMethodException e) {
+            throw new InternalServerException(SERVER_ERROR, "Projection " + type.getName() + " has no canonical constructor.", e);
+        }
+    }
+
+    private static FieldPath toField(RecordComponent component) {
+        var field = component.getAnnotation(ProjectionField.class);
+        return FieldPath.of(field == null ? component.getName() : field.value());
+    }
+
+    private static <P> P newInstance(Constructor<P> constructor, Object[] values) {
+        try {
+            return constructor.newInstance(values);
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new InternalServerException(SERVER_ERROR, "Unable to create projection " + constructor.getDeclaringClass().getName(), e);
+        } catch (IllegalArgumentException e) {
+            throw new InternalServerException(SERVER_ERROR, "Projection " + constructor.getDeclaringClass().getName() + " does not match selected fields: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.sparktechcode.springjpasearch.queries;
+
+import java.util.List;
+
+public record CompiledSearch(List<FilterGroup> filters, List<OrderField> orders, String shape) {
+
+    public static final CompiledSearch EMPTY = new CompiledSearch(List.of(), List.of());
+
+    public CompiledSearch(List<FilterGroup> filters, List<OrderField> orders) {
+        this(filters, orders, toShape(filters, orders));
+    }
+
+    private static String toShape(List<FilterGroup> filters, List<OrderField> orders) {
+        var shape = new StringBuilder();
+        for (var group : filters) {
+            for (var i = 0; i < group.conditions().size(); i++) {
+                var condition = group.conditions().get(i);
+                shape.append(i == 0 ? (shape.isEmpty() ? "" : ",") : "|").append(condition.getPath().field());
+                if (condition.getFunction() != null) {
+                    shape.append('`').append(condition.getFunction());
+                }
+                shape.append(condition.getOperation());
+            }
+        }
+        for (var order : orders) {
+            shape.append(shape.isEmpty() ? "" : ",").append(order.path().field()).append(order.ascending() ? ":a" : ":d");
+        }
+        return shape.isEmpty() ? "none" : shape.toString();
+    }
+}
@@ -0,0 +1,22 @@
+package com.sparktechcode.springjpasearch.queries;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public record FieldPath(String field, List<String> names, List<String> prefixes) {
+
+    public static FieldPath of(String field) {
+        var names = SearchQueryCompiler.split(field, '.');
+        var prefixes = new ArrayList<String>(names.size());
+        var prefix = "";
+        for (var name : names) {
+            prefix = prefix.isEmpty() ? name : (prefix + "." + name);
+            prefixes.add(prefix);
+        }
+        return new FieldPath(field, List.copyOf(names), List.copyOf(prefixes));
+    }
+
+    public boolean isNested() {
+        return field.contains(".");
+    }
+}
@@ -0,0 +1,62 @@
+package com.sparktechcode.springjpasearch.queries;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Getter
+public final class FilterCondition {
+
+    private final FieldPath path;
+    private final String function;
+    private final String operation;
+    private final String value;
+    private final List<String> values;
+    private final String likePattern;
+    private volatile TypedValue typedValue;
+
+    public FilterCondition(FieldPath path, String function, String operation, String value) {
+        this.path = path;
+        this.function = function;
+        this.operation = operation;
+        this.value = value;
+        this.values = isListOperation(operation) ? SearchQueryCompiler.split(value, ',') : List.of();
+        this.likePattern = isLikeOperation(operation) ? "%" + value.toUpperCase() + "%" : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <Y> Y getTypedValue(Class<?> type, Function<String, Y> converter) {
+        var current = typedValue;
+        if (current == null || current.type() != type) {
+            current = new TypedValue(type, converter.apply(value));
+            typedValue = current;
+        }
+        return (Y) current.value();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <Y> List<Y> getTypedValues(Class<?> type, Function<String, Y> converter) {
+        var current = typedValue;
+        if (current == null || current.type() != type) {
+            current = new TypedValue(type, values.stream().map(converter).toList());
+            typedValue = current;
+        }
+        return (List<Y>) current.value();
+    }
+
+    public boolean isTextOperation() {
+        return operation.indexOf('~') >= 0;
+    }
+
+    private static boolean isListOperation(String operation) {
+        return operation.equals("/:") || operation.equals("!/");
+    }
+
+    private static boolean isLikeOperation(String operation) {
+        return operation.equals(":~") || operation.equals("!~");
+    }
+
+    private record TypedValue(Class<?> type, Object value) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.sparktechcode.springjpasearch.queries;
+
+import java.util.List;
+
+public record FilterGroup(List<FilterCondition> conditions) {
+
+    public boolean isDisjunction() {
+        return conditions.size() > 1;
+    }
+}
@@ -0,0 +1,4 @@
+package com.sparktechcode.springjpasearch.queries;
+
+public record OrderField(FieldPath path, boolean ascending) {
+}
@@ -0,0 +1,146 @@
+package com.sparktechcode.springjpasearch.queries;
+
+import com.sparktechcode.springjpasearch.cache.SearchCache;
+import com.sparktechcode.springjpasearch.exceptions.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.sparktechcode.springjpasearch.exceptions.SparkError.UNEXPECTED_QUERY_PARAMETER;
+import static com.sparktechcode.springjpasearch.exceptions.SparkError.UNSUPPORTED_OPERATION;
+
+public final class SearchQueryCompiler {
+
+    private static final int MAX_CACHED_KEY_LENGTH = 4096;
+    private static final String OPERATION_CHARACTERS = ":</>~!";
+    private static final List<String> OPERATIONS = List.of("::", "!:", ":>", ":<", ">:", "<:", ":~", "!~", "~:", "~~", "/:", "!/", "!!", "<>");
+    private static final SearchCache<Key, CompiledSearch> CACHE = new SearchCache<>(1024);
+
+    private SearchQueryCompiler() {
+    }
+
+    public static CompiledSearch compile(Class<?> owner, List<String> filters, List<String> orders) {
+        return compile(owner, filters, orders, search -> {
+        });
+    }
+
+    public static CompiledSearch compile(Class<?> owner, List<String> filters, List<String> orders, Consumer<CompiledSearch> validator) {
+        return compile(owner, filters, orders, validator, Supplier::get);
+    }
+
+    public static CompiledSearch compile(Class<?> owner, List<String> filters, List<String> orders, Consumer<CompiledSearch> validator, Function<Supplier<CompiledSearch>, CompiledSearch> compiler) {
+        var key = new Key(owner, sorted(filters), orders == null ? List.of() : orders.stream().filter(Objects::nonNull).toList());
+        if (key.filters().isEmpty() && key.orders().isEmpty()) {
+            return CompiledSearch.EMPTY;
+        }
+        if (key.length() > MAX_CACHED_KEY_LENGTH) {
+            return compiler.apply(() -> compile(key, validator));
+        }
+        return CACHE.computeIfAbsent(key, item -> compiler.apply(() -> compile(item, validator)));
+    }
+
+    public static FilterCondition compileCondition(String filter) {
+        var split = findOperation(filter);
+        if (split < 0) {
+            throw new BadRequestException(UNEXPECTED_QUERY_PARAMETER, "Expected field pattern: {fieldName}{operation}{value}, found: " + filter);
+        }
+        var name = filter.substring(0, split);
+        var operation = filter.substring(split, split + 2);
+        if (!OPERATIONS.contains(operation)) {
+            throw new BadRequestException(UNSUPPORTED_OPERATION, "Unsupported operation: " + operation);
+        }
+        var parts = split(name, '`');
+        var function = parts.size() > 1 ? parts.get(1) : null;
+        return new FilterCondition(FieldPath.of(parts.isEmpty() ? "" : parts.get(0)), function, operation, filter.substring(split + 2));
+    }
+
+    public static OrderField compileOrder(String order) {
+        if (order == null || order.length() < 2 || order.charAt(order.length() - 2) != ':') {
+            return null;
+        }
+        var direction = order.charAt(order.length() - 1);
+        if ("aAdD,".indexOf(direction) < 0) {
+            return null;
+        }
+        var field = order.substring(0, order.length() - 2);
+        for (var i = 0; i < field.length(); i++) {
+            if (!isWordCharacter(field.charAt(i)) && field.charAt(i) != '.') {
+                return null;
+            }
+        }
+        return new OrderField(FieldPath.of(field), direction == 'a');
+    }
+
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    public static List<String> split(String value, char separator) {
+        if (value.indexOf(separator) < 0) {
+            return List.of(value);
+        }
+        var parts = new ArrayList<String>();
+        var start = 0;
+        for (var i = 0; i <= value.length(); i++) {
+            if (i == value.length() || value.charAt(i) == separator) {
+                parts.add(value.substring(start, i));
+                start = i + 1;
+            }
+        }
+        while (!parts.isEmpty() && parts.get(parts.size() - 1).isEmpty()) {
+            parts.remove(parts.size() - 1);
+        }
+        return parts;
+    }
+
+    private static CompiledSearch compile(Key key, Consumer<CompiledSearch> validator) {
+        var filters = new ArrayList<FilterGroup>(key.filters().size());
+        for (var filter : key.filters()) {
+            filters.add(new FilterGroup(split(filter, '|').stream().map(SearchQueryCompiler::compileCondition).toList()));
+        }
+        var orders = key.orders().stream()
+                .map(SearchQueryCompiler::compileOrder)
+                .filter(Objects::nonNull)
+                .toList();
+        var search = new CompiledSearch(List.copyOf(filters), orders);
+        validator.accept(search);
+        return search;
+    }
+
+    private static int findOperation(String filter) {
+        if (filter.isEmpty() || !(isWordCharacter(filter.charAt(0)) || filter.charAt(0) == '.')) {
+            return -1;
+        }
+        for (var i = filter.length() - 2; i >= 1; i--) {
+            if (OPERATION_CHARACTERS.indexOf(filter.charAt(i)) >= 0 && OPERATION_CHARACTERS.indexOf(filter.charAt(i + 1)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isWordCharacter(char character) {
+        return (character >= 'a' && character <= 'z')
+                || (character >= 'A' && character <= 'Z')
+                || (character >= '0' && character <= '9')
+                || character == '_';
+    }
+
+    private static List<String> sorted(List<String> values) {
+        if (values == null) {
+            return List.of();
+        }
+        return values.stream().filter(Objects::nonNull).sorted().toList();
+    }
+
+    private record Key(Class<?> owner, List<String> filters, List<String> orders) {
+
+        int length() {
+            return filters.stream().mapToInt(String::length).sum() + orders.stream().mapToInt(String::length).sum();
+        }
+    }
+}
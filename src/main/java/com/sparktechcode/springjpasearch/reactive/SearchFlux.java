@@ -0,0 +1,40 @@
+package com.sparktechcode.springjpasearch.reactive;
+
+import com.sparktechcode.springjpasearch.entities.BaseEntity;
+import com.sparktechcode.springjpasearch.services.SearchService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.MultiValueMap;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.stream.Stream;
+
+public final class SearchFlux {
+
+    private SearchFlux() {
+    }
+
+    public static <I, E extends BaseEntity<I>> Mono<Page<E>> search(SearchService<I, E> service, MultiValueMap<String, String> params) {
+        return search(service, params, null);
+    }
+
+    public static <I, E extends BaseEntity<I>> Mono<Page<E>> search(SearchService<I, E> service, MultiValueMap<String, String> params, Specification<E> specification) {
+        return Mono.fromFuture(() -> service.searchAsync(params, specification));
+    }
+
+    public static <I, E extends BaseEntity<I>> Mono<Long> count(SearchService<I, E> service, MultiValueMap<String, String> params, Specification<E> specification) {
+        return Mono.fromFuture(() -> service.countAsync(params, specification));
+    }
+
+    public static <I, E extends BaseEntity<I>> Flux<E> stream(SearchService<I, E> service, MultiValueMap<String, String> params) {
+        return stream(service, params, null);
+    }
+
+    public static <I, E extends BaseEntity<I>> Flux<E> stream(SearchService<I, E> service, MultiValueMap<String, String> params, Specification<E> specification) {
+        return Flux.using(() -> service.openSearchStream(params, specification), Flux::fromStream, Stream::close)
+                .subscribeOn(Schedulers.fromExecutor(service.getSearchExecutor()))
+                .limitRate(service.getStreamFetchSize());
+    }
+}
@@ -0,0 +1,50 @@
+package com.sparktechcode.springjpasearch.routing;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+public final class SearchRouting {
+
+    private static final ThreadLocal<Duration> LAG_TOLERANCE = new ThreadLocal<>();
+
+    private SearchRouting() {
+    }
+
+    public static <T> T withLagTolerance(Duration tolerance, Supplier<T> work) {
+        if (tolerance == null) {
+            return work.get();
+        }
+        var previous = LAG_TOLERANCE.get();
+        LAG_TOLERANCE.set(previous == null || tolerance.compareTo(previous) < 0 ? tolerance : previous);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                LAG_TOLERANCE.remove();
+            } else {
+                LAG_TOLERANCE.set(previous);
+            }
+        }
+    }
+
+    public static Duration getLagTolerance() {
+        return LAG_TOLERANCE.get();
+    }
+
+    public static Supplier<Duration> cachedLag(Supplier<Duration> lag, Duration refreshInterval) {
+        var cached = new AtomicReference<CachedLag>();
+        return () -> {
+            var current = cached.get();
+            var now = System.nanoTime();
+            if (current == null || now - current.measured() > refreshInterval.toNanos()) {
+                current = new CachedLag(lag.get(), now);
+                cached.set(current);
+            }
+            return current.lag();
+        };
+    }
+
+    private record CachedLag(Duration lag, long measured) {
+    }
+}
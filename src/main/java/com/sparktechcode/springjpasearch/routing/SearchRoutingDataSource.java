@@ -0,0 +1,43 @@
+package com.sparktechcode.springjpasearch.routing;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+public class SearchRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final Supplier<Duration> replicaLag;
+
+    public SearchRoutingDataSource(DataSource primary, DataSource replica) {
+        this(primary, replica, null);
+    }
+
+    public SearchRoutingDataSource(DataSource primary, DataSource replica, Supplier<Duration> replicaLag) {
+        this.replicaLag = replicaLag;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        var tolerance = SearchRouting.getLagTolerance();
+        if (tolerance == null) {
+            return Target.PRIMARY;
+        }
+        try {
+            var lag = replicaLag == null ? Duration.ZERO : replicaLag.get();
+            return lag != null && lag.compareTo(tolerance) <= 0 ? Target.REPLICA : Target.PRIMARY;
+        } catch (RuntimeException e) {
+            return Target.PRIMARY;
+        }
+    }
+}
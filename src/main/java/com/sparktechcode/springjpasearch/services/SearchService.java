@@ -1,13 +1,46 @@
 package com.sparktechcode.springjpasearch.services;
 
+import com.sparktechcode.springjpasearch.cache.SearchResultCache;
+import com.sparktechcode.springjpasearch.cache.SearchResultKey;
+import com.sparktechcode.springjpasearch.concurrent.SearchTasks;
+import com.sparktechcode.springjpasearch.count.CountStrategy;
+import com.sparktechcode.springjpasearch.count.SearchCount;
 import com.sparktechcode.springjpasearch.entities.BaseEntity;
+import com.sparktechcode.springjpasearch.exceptions.BadRequestException;
+import com.sparktechcode.springjpasearch.facets.Facet;
+import com.sparktechcode.springjpasearch.metadata.SearchAttribute;
+import com.sparktechcode.springjpasearch.metrics.SearchMetrics;
+import com.sparktechcode.springjpasearch.pagination.IdWindow;
+import com.sparktechcode.springjpasearch.pagination.SearchCursor;
+import com.sparktechcode.springjpasearch.pagination.SearchPage;
+import com.sparktechcode.springjpasearch.plans.PlannedSpecification;
+import com.sparktechcode.springjpasearch.projections.Projection;
+import com.sparktechcode.springjpasearch.queries.CompiledSearch;
+import com.sparktechcode.springjpasearch.queries.FieldPath;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.MultiValueMap;
 
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static com.sparktechcode.springjpasearch.exceptions.SparkError.UNEXPECTED_QUERY_PARAMETER;
+import static com.sparktechcode.springjpasearch.metrics.SearchPhase.*;
 
 public interface SearchService<I, E extends BaseEntity<I>> extends
         SearchServiceSpecificationGenerator<I, E>,
@@ -26,28 +59,425 @@ public interface SearchService<I, E extends BaseEntity<I>> extends
     }
 
     default Page<E> search(MultiValueMap<String, String> params, Specification<E> specification) {
+        return searchEntities(params, specification);
+    }
+
+    default CompletableFuture<Page<E>> searchAsync(MultiValueMap<String, String> params) {
+        return searchAsync(params, null);
+    }
+
+    default CompletableFuture<Page<E>> searchAsync(MultiValueMap<String, String> params, Specification<E> specification) {
+        return executeAsync(() -> search(params, specification));
+    }
+
+    default CompletableFuture<Long> countAsync(MultiValueMap<String, String> params, Specification<E> specification) {
+        return executeAsync(() -> count(params, specification));
+    }
+
+    private Page<E> searchEntities(MultiValueMap<String, String> params, Specification<E> specification) {
+        var metrics = getSearchMetrics();
         if (fetchAllData(params)) {
-            return findAll(toDataSpecification(params, specification), Pageable.unpaged());
+            return recordingErrors(params, () -> {
+                var search = parseSearch(params);
+                checkSearchCost(search, 0);
+                var shape = search.shape();
+                var dataQuery = timedSpecification(toDataSpecification(params, specification), shape);
+                var all = metrics.time(HYDRATE, getEntityClass(), shape, () -> findAll(dataQuery, Pageable.unpaged()));
+                if (requiresDistinct(search)) {
+                    var content = withoutDuplicates(all.getContent().stream(), search).toList();
+                    all = new PageImpl<>(content, all.getPageable(), content.size());
+                }
+                metrics.recordPage(getEntityClass(), shape, all.getNumberOfElements(), all.getTotalElements());
+                return all;
+            });
         }
+        // the id search records its own errors, only hydration is recorded here so a search counts one error at most
         var ids = searchIdentifiers(params, specification);
-        var data = findAllById(ids.getContent());
-        data.sort(Comparator.comparing(item -> {
-            var index = ids.getContent().indexOf(item.getId());
-            return index == -1 ? Integer.MAX_VALUE : index;
-        }));
+        var shape = compileSearch(params).shape();
+        var data = recordingErrors(params, () -> metrics.time(HYDRATE, getEntityClass(), shape, () -> sortById(findAllById(ids.getContent()), ids.getContent())));
+        metrics.recordPage(getEntityClass(), shape, data.size(), ids instanceof SearchPage<I> page && !page.isTotalExact() ? null : ids.getTotalElements());
+        if (ids instanceof SearchPage<I> page) {
+            return page.withContent(data);
+        }
         return new PageImpl<>(data, ids.getPageable(), ids.getTotalElements());
     }
 
+    private Stream<E> withoutDuplicates(Stream<E> entities, CompiledSearch search) {
+        if (!requiresDistinct(search)) {
+            return entities;
+        }
+        var ids = new HashSet<I>();
+        return entities.filter(entity -> ids.add(entity.getId()));
+    }
+
+    default List<E> sortById(List<E> entities, List<I> ids) {
+        var entitiesById = new HashMap<I, E>(entities.size() * 2);
+        entities.forEach(entity -> entitiesById.putIfAbsent(entity.getId(), entity));
+        var sorted = new ArrayList<E>(entities.size());
+        for (var id : ids) {
+            var entity = entitiesById.remove(id);
+            if (entity != null) {
+                sorted.add(entity);
+            }
+        }
+        sorted.addAll(entitiesById.values());
+        return sorted;
+    }
+
+    default Stream<E> searchStream(MultiValueMap<String, String> params) {
+        return searchStream(params, null);
+    }
+
+    default Stream<E> searchStream(MultiValueMap<String, String> params, Specification<E> specification) {
+        var search = compileSearch(params);
+        checkSearchCost(search, 0);
+        return withoutDuplicates(streamAll(toDataSpecification(params, specification)), search);
+    }
+
+    default Stream<E> openSearchStream(MultiValueMap<String, String> params, Specification<E> specification) {
+        var search = compileSearch(params);
+        checkSearchCost(search, 0);
+        var dataQuery = toDataSpecification(params, specification);
+        return withoutDuplicates(streamInSearchEntityManager(entityManager -> streamAll(entityManager, dataQuery, getStreamFetchSize())), search);
+    }
+
+    default void forEachBatch(MultiValueMap<String, String> params, Specification<E> specification, int batchSize, Consumer<List<E>> consumer) {
+        var search = compileSearch(params);
+        checkSearchCost(search, 0);
+        try (var stream = withoutDuplicates(streamAll(toDataSpecification(params, specification), batchSize), search)) {
+            var iterator = stream.iterator();
+            var batch = new ArrayList<E>(batchSize);
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == batchSize) {
+                    consumer.accept(batch);
+                    batch.forEach(getEntityManager()::detach);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                consumer.accept(batch);
+            }
+        }
+    }
+
     default Long count(MultiValueMap<String, String> params, Specification<E> specification) {
-        return countBy(toCountSpecification(params, specification));
+        return countEntities(params, specification);
+    }
+
+    private Long countEntities(MultiValueMap<String, String> params, Specification<E> specification) {
+        return recordingErrors(params, () -> {
+            var cache = getSearchResultCache();
+            var key = cache == null ? null : getSearchResultKey("count", params, specification);
+            if (key == null) {
+                return countMetered(params, specification);
+            }
+            return cache.get(key, () -> countMetered(params, specification));
+        });
+    }
+
+    private Long countMetered(MultiValueMap<String, String> params, Specification<E> specification) {
+        var search = parseSearch(params);
+        checkSearchCost(search, 0);
+        var shape = search.shape();
+        var countQuery = timedSpecification(toCountSpecification(params, specification), shape);
+        return getSearchMetrics().time(COUNT, getEntityClass(), shape, () -> countBy(countQuery));
     }
 
     default Page<I> searchIdentifiers(MultiValueMap<String, String> params, Specification<E> specification) {
+        return searchIdentifierPage(params, specification);
+    }
+
+    private Page<I> searchIdentifierPage(MultiValueMap<String, String> params, Specification<E> specification) {
+        return recordingErrors(params, () -> {
+            var cache = getSearchResultCache();
+            var key = cache == null ? null : getSearchResultKey("ids", params, specification);
+            if (key == null) {
+                return loadIdentifiers(params, specification);
+            }
+            return cache.get(key, () -> loadIdentifiers(params, specification));
+        });
+    }
+
+    default SearchCount countSearch(MultiValueMap<String, String> params, Specification<E> specification) {
+        return recordingErrors(params, () -> {
+            var shape = compileSearch(params).shape();
+            var countQuery = timedSpecification(toCountSpecification(params, specification), shape);
+            return getSearchMetrics().time(COUNT, getEntityClass(), shape, () -> getCountStrategy(params).count(this, getEntityManager(), countQuery, getSearchKey(params, specification)));
+        });
+    }
+
+    default SearchResultCache getSearchResultCache() {
+        return null;
+    }
+
+    default SearchResultCache getIdWindowCache() {
+        return null;
+    }
+
+    default SearchMetrics getSearchMetrics() {
+        return SearchMetrics.none();
+    }
+
+    private <T> T recordingErrors(MultiValueMap<String, String> params, Supplier<T> search) {
+        try {
+            return search.get();
+        } catch (RuntimeException e) {
+            CompiledSearch compiled;
+            try {
+                compiled = compileSearch(params);
+            } catch (RuntimeException invalid) {
+                // invalid parameters have no shape to record the error for
+                throw e;
+            }
+            getSearchMetrics().recordError(getEntityClass(), compiled.shape(), e);
+            throw e;
+        }
+    }
+
+    private CompiledSearch parseSearch(MultiValueMap<String, String> params) {
+        var metrics = getSearchMetrics();
+        // compiled searches are cached, only compilation is timed and not the cache lookup
+        var search = compileSearch(params, compile -> {
+            var timing = metrics.start(PARSE, getEntityClass());
+            CompiledSearch compiled = null;
+            try {
+                compiled = compile.get();
+                return compiled;
+            } catch (RuntimeException e) {
+                timing.error(e);
+                throw e;
+            } finally {
+                timing.stop(compiled == null ? "invalid" : compiled.shape());
+            }
+        });
+        metrics.recordSearch(getEntityClass(), search);
+        return search;
+    }
+
+    private Specification<E> timedSpecification(Specification<E> specification, String shape) {
+        var metrics = getSearchMetrics();
+        return PlannedSpecification.wrap(specification, (root, query, builder) -> metrics.time(SPECIFICATION, getEntityClass(), shape, () -> specification.toPredicate(root, query, builder)));
+    }
+
+    private SearchPage<I> loadIdentifiers(MultiValueMap<String, String> params, Specification<E> specification) {
+        var page = searchTuples(params, specification, List.of());
+        return page.withContent(getIdentifiers(page.getContent()));
+    }
+
+    private SearchResultKey getSearchResultKey(String operation, MultiValueMap<String, String> params, Specification<E> specification) {
+        return getSearchResultKey(operation, params, specification, "count".equals(operation) ? Pageable.unpaged() : getPageable(params));
+    }
+
+    private SearchResultKey getSearchResultKey(String operation, MultiValueMap<String, String> params, Specification<E> specification, Pageable pageable) {
+        var searchKey = getSearchKey(params, specification);
+        if (searchKey == null) {
+            return null;
+        }
+        var metadata = getSearchMetadata();
+        var entityClasses = metadata == null ? Set.<Class<?>>of(getEntityClass()) : metadata.getEntityClasses(compileSearch(params));
+        var orders = params.containsKey(orderParamName()) ? List.copyOf(params.get(orderParamName())) : List.<String>of();
+        return new SearchResultKey(searchKey, operation, orders, pageable, requestedCursor(params) ? String.valueOf(getCursor(params)) : null, !requestedNoCount(params), entityClasses);
+    }
+
+    default <P> Page<P> searchProjection(MultiValueMap<String, String> params, Specification<E> specification, Class<P> projection) {
+        return searchProjection(params, specification, Projection.of(projection));
+    }
+
+    default <P> Page<P> searchProjection(MultiValueMap<String, String> params, Specification<E> specification, List<String> fields, Class<P> projection) {
+        return searchProjection(params, specification, Projection.of(projection, fields));
+    }
+
+    default Page<Map<String, Object>> searchFields(MultiValueMap<String, String> params, Specification<E> specification) {
+        return searchProjection(params, specification, Projection.map(getRequestedFields(params)));
+    }
+
+    default <P> Page<P> searchProjection(MultiValueMap<String, String> params, Specification<E> specification, Projection<P> projection) {
+        return searchProjectionPage(params, specification, projection);
+    }
+
+    private <P> Page<P> searchProjectionPage(MultiValueMap<String, String> params, Specification<E> specification, Projection<P> projection) {
+        validateProjection(projection);
+        var fields = projection.fields();
+        var page = recordingErrors(params, () -> searchTuples(params, specification, fields));
+        var content = new ArrayList<P>(page.getContent().size());
+        for (var tuple : page.getContent()) {
+            var values = new Object[fields.size()];
+            var offset = tuple.getElements().size() - fields.size();
+            for (var i = 0; i < values.length; i++) {
+                values[i] = tuple.get(offset + i);
+            }
+            content.add(projection.create(values));
+        }
+        return page.withContent(content);
+    }
+
+    default List<Facet> facets(MultiValueMap<String, String> params, Specification<E> specification, List<String> fields) {
+        return recordingErrors(params, () -> countFacets(params, specification, fields));
+    }
+
+    private List<Facet> countFacets(MultiValueMap<String, String> params, Specification<E> specification, List<String> fields) {
+        var search = parseSearch(params);
+        checkSearchCost(search, 0);
+        var paths = fields.stream().map(FieldPath::of).toList();
+        validateFacets(paths);
+        var metrics = getSearchMetrics();
+        var countQuery = timedSpecification(toCountSpecification(params, specification), search.shape());
+        var limit = getMaxFacetBuckets();
+        if (!isParallelSearchEnabled() || paths.size() < 2) {
+            return metrics.time(FACETS, getEntityClass(), search.shape(), () -> paths.stream()
+                    .map(path -> getFacet(getEntityManager(), countQuery, path, limit))
+                    .toList());
+        }
+        var tasks = paths.stream()
+                .map(path -> (Callable<Object>) () -> metrics.time(FACETS, getEntityClass(), search.shape(), () -> executeInSearchEntityManager(entityManager -> getFacet(entityManager, countQuery, path, limit))))
+                .toList();
+        return SearchTasks.invokeAll(getSearchExecutor(), getParallelSearchTimeout(), tasks).stream()
+                .map(Facet.class::cast)
+                .toList();
+    }
+
+    default void validateFacets(List<FieldPath> fields) {
+        var metadata = getSearchMetadata();
+        if (metadata == null || !isFieldValidationEnabled()) {
+            return;
+        }
+        for (var field : fields) {
+            if (!metadata.validate(field).isBasic()) {
+                throw new BadRequestException(UNEXPECTED_QUERY_PARAMETER, "Facet field has to be a basic attribute: " + field.field());
+            }
+        }
+    }
+
+    default void validateProjection(Projection<?> projection) {
+        var metadata = getSearchMetadata();
+        if (metadata == null || !isFieldValidationEnabled()) {
+            return;
+        }
+        for (var field : projection.fields()) {
+            metadata.validate(field);
+            if (metadata.resolveAll(field).stream().anyMatch(SearchAttribute::plural)) {
+                throw new BadRequestException(UNEXPECTED_QUERY_PARAMETER, "Projection field has to be single valued: " + field.field());
+            }
+        }
+    }
+
+    private SearchPage<Tuple> searchTuples(MultiValueMap<String, String> params, Specification<E> specification, List<FieldPath> fields) {
+        var metrics = getSearchMetrics();
+        var search = parseSearch(params);
+        var shape = search.shape();
         var pageable = getPageable(params);
-        var dataQuery = toDataSpecification(params, specification);
-        var countQuery = toCountSpecification(params, specification);
-        var ids = getIds(dataQuery, pageable);
-        return new PageImpl<>(ids, pageable, countBy(countQuery));
+        checkSearchCost(search, pageable.isPaged() ? pageable.getOffset() : 0);
+        var dataQuery = timedSpecification(toDataSpecification(params, specification), shape);
+        if (requestedCursor(params) && pageable.isPaged()) {
+            return searchAfter(dataQuery, pageable, fields, shape);
+        }
+        var windowCache = getIdWindowCache();
+        var windowKey = windowCache == null || !fields.isEmpty() || pageable.isUnpaged() ? null : getSearchResultKey("window", params, specification, getIdWindowPageable(pageable));
+        if (windowKey != null) {
+            return searchInWindow(windowCache, windowKey, params, specification, dataQuery, pageable, shape);
+        }
+        var countStrategy = getCountStrategy(params);
+        var probing = countStrategy.isProbing() && pageable.isPaged();
+        if (isParallelSearchEnabled() && !probing && pageable.isPaged()) {
+            return searchInParallel(params, specification, dataQuery, pageable, countStrategy, fields, shape);
+        }
+        var tuples = metrics.time(IDS, getEntityClass(), shape, () -> getTuples(getEntityManager(), dataQuery, pageable, probing ? 1 : 0, fields));
+        var hasNext = probing && tuples.size() > pageable.getPageSize();
+        if (hasNext) {
+            tuples = tuples.subList(0, pageable.getPageSize());
+        }
+        var count = countIdentifiers(pageable, tuples.size(), probing, hasNext, () -> metrics.time(COUNT, getEntityClass(), shape, () -> countStrategy.count(this, getEntityManager(), timedSpecification(toCountSpecification(params, specification), shape), getSearchKey(params, specification))));
+        return new SearchPage<>(tuples, pageable, count.total(), count.exact());
+    }
+
+    private SearchPage<Tuple> searchInParallel(MultiValueMap<String, String> params, Specification<E> specification, Specification<E> dataQuery, Pageable pageable, CountStrategy countStrategy, List<FieldPath> fields, String shape) {
+        var metrics = getSearchMetrics();
+        var countQuery = timedSpecification(toCountSpecification(params, specification), shape);
+        var searchKey = getSearchKey(params, specification);
+        var results = SearchTasks.invokeAll(getSearchExecutor(), getParallelSearchTimeout(), List.<Callable<Object>>of(
+                () -> metrics.time(IDS, getEntityClass(), shape, () -> executeInSearchEntityManager(entityManager -> getTuples(entityManager, dataQuery, pageable, 0, fields))),
+                () -> metrics.time(COUNT, getEntityClass(), shape, () -> executeInSearchEntityManager(entityManager -> countStrategy.count(this, entityManager, countQuery, searchKey)))
+        ));
+        @SuppressWarnings("unchecked")
+        var tuples = (List<Tuple>) results.get(0);
+        var count = countIdentifiers(pageable, tuples.size(), false, false, () -> (SearchCount) results.get(1));
+        return new SearchPage<>(tuples, pageable, count.total(), count.exact());
+    }
+
+    private SearchPage<Tuple> searchInWindow(SearchResultCache cache, SearchResultKey key, MultiValueMap<String, String> params, Specification<E> specification, Specification<E> dataQuery, Pageable pageable, String shape) {
+        var metrics = getSearchMetrics();
+        var window = cache.get(key, () -> loadIdWindow(getEntityManager(), dataQuery, key.pageable(), shape));
+        var tuples = window.getPage(pageable);
+        var hasNext = window.hasNext(pageable);
+        if (hasNext && window.isLastPage(pageable) && isIdWindowPrefetchEnabled()) {
+            var next = getSearchResultKey("window", params, specification, key.pageable().next());
+            SearchTasks.runInBackground(getSearchExecutor(), "Prefetching id window " + next.pageable() + " of " + getEntityClass().getSimpleName(),
+                    () -> cache.get(next, () -> executeInSearchEntityManager(entityManager -> loadIdWindow(entityManager, dataQuery, next.pageable(), shape))));
+        }
+        var countStrategy = getCountStrategy(params);
+        var count = countIdentifiers(pageable, tuples.size(), true, hasNext, () -> window.count(() -> metrics.time(COUNT, getEntityClass(), shape, () -> countStrategy.count(this, getEntityManager(), timedSpecification(toCountSpecification(params, specification), shape), getSearchKey(params, specification)))));
+        return new SearchPage<>(tuples, pageable, count.total(), count.exact());
+    }
+
+    private IdWindow<Tuple> loadIdWindow(EntityManager entityManager, Specification<E> dataQuery, Pageable window, String shape) {
+        return new IdWindow<>(getSearchMetrics().time(IDS, getEntityClass(), shape, () -> getTuples(entityManager, dataQuery, window, 1, List.of())), window);
+    }
+
+    private Pageable getIdWindowPageable(Pageable pageable) {
+        var size = pageable.getPageSize() * Math.max(1, getIdWindowPages());
+        return PageRequest.of((int) (pageable.getOffset() / size), size);
+    }
+
+    default CountStrategy getCountStrategy() {
+        return CountStrategy.exact();
+    }
+
+    default CountStrategy getCountStrategy(MultiValueMap<String, String> params) {
+        return requestedNoCount(params) ? CountStrategy.none() : getCountStrategy();
+    }
+
+    private SearchCount countIdentifiers(Pageable pageable, int size, boolean probing, boolean hasNext, Supplier<SearchCount> counter) {
+        if (pageable.isUnpaged()) {
+            return SearchCount.exact(size);
+        }
+        var total = pageable.getOffset() + size;
+        var lastPage = probing ? !hasNext : size < pageable.getPageSize();
+        if (lastPage && (size > 0 || pageable.getOffset() == 0)) {
+            return SearchCount.exact(total);
+        }
+        var count = counter.get();
+        if (!count.isKnown()) {
+            return SearchCount.atLeast(hasNext ? total + 1 : total);
+        }
+        return count;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<I> getIdentifiers(List<Tuple> tuples) {
+        return tuples.stream().map(item -> (I) item.get(0)).toList();
+    }
+
+    private SearchPage<Tuple> searchAfter(Specification<E> dataQuery, Pageable pageable, List<FieldPath> fields, String shape) {
+        var tuples = getSearchMetrics().time(IDS, getEntityClass(), shape, () -> getTuples(getEntityManager(), dataQuery, pageable, 1, fields));
+        var hasNext = tuples.size() > pageable.getPageSize();
+        var content = hasNext ? tuples.subList(0, pageable.getPageSize()) : tuples;
+        String nextCursor = null;
+        if (hasNext) {
+            var values = content.get(content.size() - 1).toArray();
+            nextCursor = SearchCursor.encode(Arrays.asList(values).subList(1, values.length - fields.size()));
+        }
+        return new SearchPage<>(content, pageable, hasNext ? pageable.getPageSize() + 1 : content.size(), false, nextCursor);
+    }
+
+    default void warmUp() {
+        getEntityClass();
+        getSearchMetadata();
+        getWarmUpParams().forEach(this::compileSearch);
+    }
+
+    default List<MultiValueMap<String, String>> getWarmUpParams() {
+        return List.of();
     }
 
     default Integer getMaxPageSize() {
@@ -66,7 +496,7 @@ public interface SearchService<I, E extends BaseEntity<I>> extends
             return Pageable.unpaged();
         } else {
             var limit = parseIntParam(params, limitParamName(), 12, 1, getMaxPageSize());
-            var page = parseIntParam(params, pageParamName(), 0, 0, Integer.MAX_VALUE);
+            var page = requestedCursor(params) ? 0 : parseIntParam(params, pageParamName(), 0, 0, Integer.MAX_VALUE);
             return Pageable.ofSize(limit).withPage(page);
         }
     }
@@ -1,5 +1,8 @@
 package com.sparktechcode.springjpasearch.services;
 
+import com.sparktechcode.springjpasearch.cost.SearchCostModel;
+
+import java.time.Duration;
 import java.util.regex.Pattern;
 
 public interface SearchServiceConfig {
@@ -27,10 +30,78 @@ public interface SearchServiceConfig {
         return "allData";
     };
 
+    default String afterParamName() {
+        return "after";
+    };
+
+    default String fieldsParamName() {
+        return "fields";
+    };
+
+    default String countParamName() {
+        return "count";
+    };
+
     default boolean isSearchAllDataAllowed() {
         return false;
     }
 
+    default int getMaxInListSize() {
+        return 512;
+    }
+
+    default boolean isCacheAwareHydrationEnabled() {
+        return true;
+    }
+
+    default int getMaxFacetBuckets() {
+        return 20;
+    }
+
+    default int getStreamFetchSize() {
+        return 500;
+    }
+
+    default int getIdWindowPages() {
+        return 5;
+    }
+
+    default boolean isIdWindowPrefetchEnabled() {
+        return false;
+    }
+
+    default boolean isParallelSearchEnabled() {
+        return false;
+    }
+
+    default Duration getParallelSearchTimeout() {
+        return Duration.ofSeconds(30);
+    }
+
+    default SearchCostModel getSearchCostModel() {
+        return null;
+    }
+
+    default Duration getQueryTimeout() {
+        return null;
+    }
+
+    default boolean isReadOnlySearch() {
+        return true;
+    }
+
+    default Duration getReplicaLagTolerance() {
+        return null;
+    }
+
+    default boolean isQueryPlanReuseEnabled() {
+        return true;
+    }
+
+    default boolean isFieldValidationEnabled() {
+        return true;
+    }
+
     default String getIdFieldName() {
         return "id";
     }
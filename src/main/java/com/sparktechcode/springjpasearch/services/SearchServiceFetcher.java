@@ -1,52 +1,188 @@
 package com.sparktechcode.springjpasearch.services;
 
+import com.sparktechcode.springjpasearch.concurrent.SearchExecutors;
 import com.sparktechcode.springjpasearch.entities.BaseEntity;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.TypedQuery;
-import jakarta.persistence.criteria.Expression;
-import jakarta.persistence.criteria.Order;
-import jakarta.persistence.criteria.Selection;
+import com.sparktechcode.springjpasearch.facets.Facet;
+import com.sparktechcode.springjpasearch.facets.FacetBucket;
+import com.sparktechcode.springjpasearch.fetch.FetchNode;
+import com.sparktechcode.springjpasearch.fetch.FetchPlan;
+import com.sparktechcode.springjpasearch.hydration.IdChunks;
+import com.sparktechcode.springjpasearch.hydration.PersistenceContexts;
+import com.sparktechcode.springjpasearch.metadata.EntitySearchMetadata;
+import com.sparktechcode.springjpasearch.plans.PlannedSpecification;
+import com.sparktechcode.springjpasearch.plans.SearchParameters;
+import com.sparktechcode.springjpasearch.plans.SearchPlans;
+import com.sparktechcode.springjpasearch.queries.FieldPath;
+import com.sparktechcode.springjpasearch.routing.SearchRouting;
+import jakarta.persistence.*;
+import jakarta.persistence.criteria.*;
+import org.hibernate.Session;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaExpression;
+import org.hibernate.query.criteria.JpaOrder;
+import org.hibernate.query.criteria.JpaSubQuery;
+import org.hibernate.query.sqm.tree.domain.SqmPath;
+import org.hibernate.query.sqm.tree.domain.SqmPluralValuedSimplePath;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public interface SearchServiceFetcher<I, E extends BaseEntity<I>> extends SearchServiceParser<I, E> {
 
     EntityManager getEntityManager();
 
+    @Override
+    default EntitySearchMetadata getSearchMetadata() {
+        return EntitySearchMetadata.of(getEntityManager().getMetamodel(), getEntityClass());
+    }
+
     default List<String> getSearchEntityGraphAttributes() {
         return List.of();
     }
 
+    default FetchPlan getSearchFetchPlan() {
+        var attributes = getSearchEntityGraphAttributes();
+        return attributes.isEmpty() ? FetchPlan.NONE : FetchPlan.ofEntityGraph(attributes);
+    }
+
     default List<E> findAllById(List<I> ids) {
         if (ids == null || ids.isEmpty()) {
             return new ArrayList<>();
         }
-        return createQuery((root, query, builder) -> root.get(getIdFieldName()).in(ids)).getResultList();
+        return withFetchPlanEntityManager(entityManager -> findAllById(entityManager, ids));
+    }
+
+    private List<E> findAllById(EntityManager entityManager, List<I> ids) {
+        var result = new ArrayList<E>(ids.size());
+        var missing = new ArrayList<I>(ids.size());
+        for (var id : new LinkedHashSet<>(ids)) {
+            var entity = isCacheAwareHydrationEnabled() ? findLoaded(id) : null;
+            if (entity != null) {
+                result.add(entity);
+            } else {
+                missing.add(id);
+            }
+        }
+        for (var chunk : IdChunks.split(missing, getMaxInListSize())) {
+            Specification<E> specification = (root, query, builder) -> {
+                var path = root.get(getIdFieldName());
+                return path.in(chunk.stream().map(id -> SearchParameters.bind(builder, path, id)).toArray(Expression[]::new));
+            };
+            result.addAll(withSearchHints(createQuery(entityManager, getPlanKey(entityManager, "ids", "ids", chunk.size()), specification, true)).getResultList());
+        }
+        fetchCollections(entityManager, result);
+        return result;
+    }
+
+    private <T> T withFetchPlanEntityManager(Function<EntityManager, T> work) {
+        // without a bound entity manager every query of the shared one runs in a new persistence context, collections
+        // fetched by the plan would not reach the entities, so the entities and their collections share one
+        if (getSearchFetchPlan().isEmpty() || TransactionSynchronizationManager.hasResource(getEntityManagerFactory())) {
+            return work.apply(getEntityManager());
+        }
+        return executeInSearchEntityManager(work);
+    }
+
+    default void fetchCollections(EntityManager entityManager, List<E> entities) {
+        var plan = getSearchFetchPlan();
+        if (plan.isEmpty() || entities.isEmpty()) {
+            return;
+        }
+        var ids = entities.stream().map(BaseEntity::getId).distinct().toList();
+        for (var collection : FetchNode.collections(plan.resolve(getSearchMetadata()))) {
+            var name = collection.stream().map(FetchNode::name).collect(Collectors.joining("."));
+            for (var chunk : IdChunks.split(ids, getMaxInListSize())) {
+                withSearchHints(SearchPlans.createQuery(entityManager, getPlanKey(entityManager, "fetch", name, chunk.size()), () -> {
+                    var builder = entityManager.getCriteriaBuilder();
+                    var query = builder.createQuery(Object.class);
+                    var root = query.from(getEntityClass());
+                    From<?, ?> owner = root;
+                    for (var node : collection.subList(0, collection.size() - 1)) {
+                        owner = owner.join(node.name());
+                    }
+                    var fetched = collection.get(collection.size() - 1);
+                    FetchNode.fetchSingular(owner.fetch(fetched.name(), JoinType.LEFT), fetched.children());
+                    var path = root.get(getIdFieldName());
+                    query.select(owner).distinct(true);
+                    query.where(path.in(chunk.stream().map(id -> SearchParameters.bind(builder, path, id)).toArray(Expression[]::new)));
+                    return query;
+                })).getResultList();
+            }
+        }
+    }
+
+    default E findLoaded(I id) {
+        if (!getSearchFetchPlan().isEmpty()) {
+            return null;
+        }
+        var entity = PersistenceContexts.findManaged(getEntityManager(), getEntityClass(), id);
+        return entity != null ? entity : PersistenceContexts.findCached(getEntityManager(), getEntityClass(), id);
     }
 
     default List<E> findAll() {
-        return createQuery(null).getResultList();
+        return withFetchPlanEntityManager(entityManager -> {
+            var data = withQueryTimeout(createQuery(entityManager, null, null, true)).getResultList();
+            fetchCollections(entityManager, data);
+            return data;
+        });
     }
 
     default Page<E> findAll(Specification<E> specification, Pageable pageable) {
-        var typedQuery = createQuery(specification);
-        if (pageable.isPaged()) {
-            typedQuery.setFirstResult((int) pageable.getOffset());
-            typedQuery.setMaxResults(pageable.getPageSize());
-        }
-        var data = typedQuery.getResultList();
-        return new PageImpl<>(data, pageable, data.size());
+        return withFetchPlanEntityManager(entityManager -> {
+            var typedQuery = withSearchHints(createQuery(entityManager, getPlanKey(entityManager, "entities", PlannedSpecification.planOf(specification)), specification, true));
+            if (pageable.isPaged()) {
+                typedQuery.setFirstResult((int) pageable.getOffset());
+                typedQuery.setMaxResults(pageable.getPageSize());
+            }
+            var data = typedQuery.getResultList();
+            fetchCollections(entityManager, data);
+            return new PageImpl<>(data, pageable, data.size());
+        });
+    }
+
+    default Stream<E> streamAll(Specification<E> specification) {
+        return streamAll(specification, getStreamFetchSize());
+    }
+
+    default Stream<E> streamAll(Specification<E> specification, int fetchSize) {
+        return streamAll(getEntityManager(), specification, fetchSize);
+    }
+
+    default Stream<E> streamAll(EntityManager entityManager, Specification<E> specification, int fetchSize) {
+        var consumed = new ArrayList<E>(fetchSize);
+        return createQuery(entityManager, getPlanKey(entityManager, "entities", PlannedSpecification.planOf(specification)), specification, true)
+                .setHint("org.hibernate.fetchSize", fetchSize)
+                .setHint("org.hibernate.readOnly", true)
+                .getResultStream()
+                .map(item -> {
+                    if (consumed.size() == fetchSize) {
+                        consumed.forEach(entityManager::detach);
+                        consumed.clear();
+                    }
+                    consumed.add(item);
+                    return item;
+                });
     }
 
     default Optional<E> findOne(Specification<E> specification) {
         try {
-            var typedQuery = createQuery(specification, false);
+            var typedQuery = withQueryTimeout(createQuery(getEntityManager(), getPlanKey(getEntityManager(), "one", PlannedSpecification.planOf(specification)), specification, false));
             var data = typedQuery.getSingleResult();
             return Optional.ofNullable(data);
         } catch (Exception e) {
@@ -54,67 +190,303 @@ public interface SearchServiceFetcher<I, E extends BaseEntity<I>> extends Search
         }
     }
 
-    @SuppressWarnings("unchecked")
     default List<I> getIds(Specification<E> specification, Pageable pageable) {
-        var builder = getEntityManager().getCriteriaBuilder();
-        var query = builder.createTupleQuery();
-        var root = query.from(getEntityClass());
-        query.where(specification.toPredicate(root, query, builder));
-        var selection = new ArrayList<Expression<?>>();
-        selection.add(root.get(getIdFieldName()));
-        selection.addAll(query.getOrderList().stream().map(Order::getExpression).toList());
-        query.multiselect((List<Selection<?>>) ((List<?>) selection));
-        query.groupBy(selection);
+        return getIds(getEntityManager(), specification, pageable);
+    }
+
+    @SuppressWarnings("unchecked")
+    default List<I> getIds(EntityManager entityManager, Specification<E> specification, Pageable pageable) {
+        return getIdTuples(entityManager, specification, pageable, 0)
+                .stream()
+                .map(item -> (I) item.get(0))
+                .toList();
+    }
+
+    default List<Tuple> getIdTuples(Specification<E> specification, Pageable pageable) {
+        return getIdTuples(specification, pageable, 0);
+    }
+
+    default List<Tuple> getIdTuples(Specification<E> specification, Pageable pageable, int extraRows) {
+        return getIdTuples(getEntityManager(), specification, pageable, extraRows);
+    }
+
+    default List<Tuple> getIdTuples(EntityManager entityManager, Specification<E> specification, Pageable pageable, int extraRows) {
+        return getTuples(entityManager, specification, pageable, extraRows, List.of());
+    }
+
+    @SuppressWarnings("unchecked")
+    default List<Tuple> getTuples(EntityManager entityManager, Specification<E> specification, Pageable pageable, int extraRows, List<FieldPath> fields) {
+        var typedQuery = withSearchHints(SearchPlans.createQuery(entityManager, getPlanKey(entityManager, "tuples", PlannedSpecification.planOf(specification), fields), () -> {
+            var builder = entityManager.getCriteriaBuilder();
+            var query = builder.createTupleQuery();
+            var root = query.from(getEntityClass());
+            query.where(specification.toPredicate(root, query, builder));
+            var distinct = isDistinct(query, root);
+            var orders = distinct ? aggregateOrders(query.getOrderList(), builder) : query.getOrderList();
+            var grouping = new ArrayList<Expression<?>>();
+            grouping.add(root.get(getIdFieldName()));
+            if (!fields.isEmpty()) {
+                var joins = new HashMap<String, Path<?>>();
+                fields.forEach(field -> grouping.add(getProjectionPath(field, root, joins)));
+            }
+            var selection = new ArrayList<Expression<?>>(grouping.size() + orders.size());
+            selection.add(grouping.get(0));
+            selection.addAll(orders.stream().map(Order::getExpression).toList());
+            selection.addAll(grouping.subList(1, grouping.size()));
+            query.multiselect((List<Selection<?>>) ((List<?>) selection));
+            if (distinct) {
+                // one row per entity, collection order values are reduced to the first value in sort direction
+                query.distinct(false);
+                query.groupBy(grouping);
+                query.orderBy(orders);
+            }
+            return query;
+        }));
         if (pageable.isUnpaged()) {
-            return getEntityManager()
-                    .createQuery(query)
-                    .getResultList()
-                    .stream()
-                    .map(item -> (I) item.toArray()[0])
-                    .toList();
+            return typedQuery.getResultList();
         } else {
-            return getEntityManager()
-                    .createQuery(query)
+            return typedQuery
                     .setFirstResult((int) pageable.getOffset())
-                    .setMaxResults(pageable.getPageSize())
-                    .getResultList()
-                    .stream()
-                    .map(item -> (I) item.toArray()[0])
-                    .toList();
+                    .setMaxResults(pageable.getPageSize() + extraRows)
+                    .getResultList();
         }
     }
 
     default Long countBy(Specification<E> specification) {
-        var builder = getEntityManager().getCriteriaBuilder();
-        var query = builder.createQuery(Long.class);
-        var root = query.from(getEntityClass());
-        query.select(builder.countDistinct(root.get(getIdFieldName())));
-        query.where(specification.toPredicate(root, query, builder));
-        return getEntityManager()
-                .createQuery(query)
-                .getSingleResult();
+        return countBy(getEntityManager(), specification);
     }
 
+    default Long countBy(EntityManager entityManager, Specification<E> specification) {
+        return withSearchHints(SearchPlans.createQuery(entityManager, getPlanKey(entityManager, "count", PlannedSpecification.planOf(specification)), () -> {
+            var builder = entityManager.getCriteriaBuilder();
+            var query = builder.createQuery(Long.class);
+            var root = query.from(getEntityClass());
+            query.where(specification.toPredicate(root, query, builder));
+            if (isDistinct(query, root)) {
+                query.distinct(false);
+                query.select(builder.countDistinct(root.get(getIdFieldName())));
+            } else {
+                query.select(builder.count(root));
+            }
+            return query;
+        })).getSingleResult();
+    }
 
-    private TypedQuery<E> createQuery(Specification<E> specification) {
-        return createQuery(specification, true);
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    default Long countBy(EntityManager entityManager, Specification<E> specification, long limit) {
+        return withSearchHints(SearchPlans.createQuery(entityManager, getPlanKey(entityManager, "count", PlannedSpecification.planOf(specification), limit), () -> {
+            var builder = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+            var query = builder.createQuery(Long.class);
+            var subquery = (JpaSubQuery<Object>) query.subquery(Object.class);
+            var root = subquery.from(getEntityClass());
+            subquery.where(specification.toPredicate(root, query, builder));
+            subquery.select((Expression) root.get(getIdFieldName()).alias("id"));
+            subquery.distinct(isDistinct(query, root));
+            subquery.fetch(limit);
+            query.distinct(false);
+            query.select(builder.count(builder.literal(1)));
+            query.from(subquery);
+            return query;
+        })).getSingleResult();
     }
 
-    private TypedQuery<E> createQuery(Specification<E> specification, boolean fetchAttributes) {
-        var criteriaBuilder = getEntityManager().getCriteriaBuilder();
-        var criteriaQuery = criteriaBuilder.createQuery(getEntityClass());
-        var root = criteriaQuery.from(getEntityClass());
-        criteriaQuery.select(root);
-        if (specification != null) {
-            criteriaQuery.where(specification.toPredicate(root, criteriaQuery, criteriaBuilder));
+    default Facet getFacet(EntityManager entityManager, Specification<E> specification, FieldPath field, int limit) {
+        var rows = withSearchHints(SearchPlans.createQuery(entityManager, getPlanKey(entityManager, "facet", PlannedSpecification.planOf(specification), field), () -> {
+                    var builder = entityManager.getCriteriaBuilder();
+                    var query = builder.createTupleQuery();
+                    var root = query.from(getEntityClass());
+                    query.where(specification.toPredicate(root, query, builder));
+                    var path = getProjectionPath(field, root, new HashMap<>());
+                    var count = isDistinct(query, root) ? builder.countDistinct(root.get(getIdFieldName())) : builder.count(root);
+                    query.distinct(false);
+                    query.multiselect(path, count);
+                    query.groupBy(path);
+                    query.orderBy(builder.desc(count));
+                    return query;
+                }))
+                .setMaxResults(limit + 1)
+                .getResultList();
+        var buckets = new ArrayList<FacetBucket>(Math.min(rows.size(), limit));
+        for (var i = 0; i < rows.size() && i < limit; i++) {
+            buckets.add(new FacetBucket(rows.get(i).get(0), rows.get(i).get(1, Long.class)));
         }
-        var query = getEntityManager().createQuery(criteriaQuery);
-        if (fetchAttributes && !getSearchEntityGraphAttributes().isEmpty()) {
-            var entityGraph = getEntityManager().createEntityGraph(getEntityClass());
-            getSearchEntityGraphAttributes().forEach(entityGraph::addAttributeNodes);
-            entityGraph.addAttributeNodes(getSearchEntityGraphAttributes().toArray(String[]::new));
-            query.setHint("javax.persistence.fetchgraph", entityGraph);
+        return new Facet(field.field(), buckets, rows.size() > limit);
+    }
+
+    default EntityManagerFactory getEntityManagerFactory() {
+        return getEntityManager().getEntityManagerFactory();
+    }
+
+    default Executor getSearchExecutor() {
+        return SearchExecutors.defaultExecutor();
+    }
+
+    default <T> T executeInSearchEntityManager(Function<EntityManager, T> work) {
+        return executeInNewEntityManager(work);
+    }
+
+    default <T> CompletableFuture<T> executeAsync(Supplier<T> work) {
+        return CompletableFuture.supplyAsync(() -> executeInSearchEntityManager(entityManager -> executeBound(entityManager, work)), getSearchExecutor());
+    }
+
+    default <T> Stream<T> streamInSearchEntityManager(Function<EntityManager, Stream<T>> work) {
+        var entityManager = openSearchEntityManager();
+        try {
+            return work.apply(entityManager).onClose(() -> closeSearchEntityManager(entityManager));
+        } catch (RuntimeException e) {
+            closeSearchEntityManager(entityManager);
+            throw e;
+        }
+    }
+
+    private <T> T executeInNewEntityManager(Function<EntityManager, T> work) {
+        var entityManager = openSearchEntityManager();
+        try {
+            var timeout = getQueryTimeout();
+            if (timeout != null && !timeout.isZero()) {
+                entityManager.setProperty("jakarta.persistence.query.timeout", (int) timeout.toMillis());
+            }
+            return work.apply(entityManager);
+        } finally {
+            closeSearchEntityManager(entityManager);
+        }
+    }
+
+    private <T> T executeBound(EntityManager entityManager, Supplier<T> work) {
+        var factory = getEntityManagerFactory();
+        if (TransactionSynchronizationManager.hasResource(factory)) {
+            return work.get();
+        }
+        TransactionSynchronizationManager.bindResource(factory, new EntityManagerHolder(entityManager));
+        try {
+            return work.get();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(factory);
+        }
+    }
+
+    private EntityManager openSearchEntityManager() {
+        var entityManager = getEntityManagerFactory().createEntityManager();
+        try {
+            entityManager.setFlushMode(FlushModeType.COMMIT);
+            // the connection is routed when it is acquired and held until the transaction ends, so only entity 
+            // managers owned by the search use a replica and a request's own entity manager stays on the primary
+            SearchRouting.withLagTolerance(getReplicaLagTolerance(), () -> {
+                entityManager.getTransaction().begin();
+                entityManager.unwrap(Session.class).doWork(connection -> {
+                });
+                return null;
+            });
+        } catch (IllegalStateException e) {
+            // JTA entity managers do not expose a resource local transaction
+        } catch (RuntimeException e) {
+            closeSearchEntityManager(entityManager);
+            throw e;
+        }
+        return entityManager;
+    }
+
+    private void closeSearchEntityManager(EntityManager entityManager) {
+        try {
+            var transaction = entityManager.getTransaction();
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+        } catch (IllegalStateException e) {
+            // JTA entity managers do not expose a resource local transaction
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private <T> TypedQuery<T> withSearchHints(TypedQuery<T> query) {
+        if (isReadOnlySearch()) {
+            query.setHint("org.hibernate.readOnly", true);
+            query.setFlushMode(FlushModeType.COMMIT);
+        }
+        return withQueryTimeout(query);
+    }
+
+    private <T> TypedQuery<T> withQueryTimeout(TypedQuery<T> query) {
+        var timeout = getQueryTimeout();
+        if (timeout != null && !timeout.isZero()) {
+            query.setHint("jakarta.persistence.query.timeout", (int) timeout.toMillis());
         }
         return query;
     }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<Order> aggregateOrders(List<Order> orders, CriteriaBuilder builder) {
+        var aggregated = new ArrayList<Order>(orders.size());
+        for (var order : orders) {
+            var expression = (Expression) order.getExpression();
+            var value = order.isAscending() ? builder.least(expression) : builder.greatest(expression);
+            if (order instanceof JpaOrder jpaOrder && builder instanceof HibernateCriteriaBuilder hibernate) {
+                aggregated.add(hibernate.sort((JpaExpression<?>) value, jpaOrder.getSortDirection(), jpaOrder.getNullPrecedence()));
+            } else {
+                aggregated.add(order.isAscending() ? builder.asc(value) : builder.desc(value));
+            }
+        }
+        return aggregated;
+    }
+
+    private boolean isDistinct(CriteriaQuery<?> query, From<?, ?> from) {
+        return query.isDistinct() || navigatesCollection(from);
+    }
+
+    private boolean navigatesCollection(Path<?> path) {
+        if (path instanceof From<?, ?> from) {
+            for (var join : from.getJoins()) {
+                if (join.getAttribute().isCollection() || navigatesCollection(join)) {
+                    return true;
+                }
+            }
+        }
+        if (path instanceof SqmPath<?> sqmPath) {
+            // implicit joins of specifications, e.g. root.get("roles").get("name")
+            for (var reusable : sqmPath.getReusablePaths()) {
+                if (reusable instanceof SqmPluralValuedSimplePath<?> || navigatesCollection(reusable)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Path<?> getProjectionPath(FieldPath field, Root<E> root, Map<String, Path<?>> joins) {
+        var metadata = getSearchMetadata();
+        var attributes = metadata == null ? null : metadata.resolveAll(field);
+        Path<?> path = root;
+        for (var i = 0; i < field.names().size(); i++) {
+            var name = field.names().get(i);
+            if (i == field.names().size() - 1) {
+                return path.get(name);
+            }
+            var association = attributes == null || attributes.get(i).association();
+            var parent = path;
+            path = joins.computeIfAbsent(field.prefixes().get(i), key -> association && parent instanceof From<?, ?> from ? from.join(name, JoinType.LEFT) : parent.get(name));
+        }
+        return path;
+    }
+
+    private SearchPlans.Key getPlanKey(EntityManager entityManager, String kind, Object plan, Object... details) {
+        return isQueryPlanReuseEnabled() ? SearchPlans.key(entityManager, getClass(), kind, plan, details) : null;
+    }
+
+    private TypedQuery<E> createQuery(EntityManager entityManager, SearchPlans.Key key, Specification<E> specification, boolean fetchAttributes) {
+        var plan = fetchAttributes ? getSearchFetchPlan() : FetchPlan.NONE;
+        return SearchPlans.createQuery(entityManager, key, () -> {
+            var criteriaBuilder = entityManager.getCriteriaBuilder();
+            var criteriaQuery = criteriaBuilder.createQuery(getEntityClass());
+            var root = criteriaQuery.from(getEntityClass());
+            criteriaQuery.select(root);
+            if (!plan.isEmpty()) {
+                FetchNode.fetchSingular(root, plan.resolve(getSearchMetadata()));
+            }
+            if (specification != null) {
+                criteriaQuery.where(specification.toPredicate(root, criteriaQuery, criteriaBuilder));
+            }
+            return criteriaQuery;
+        });
+    }
 }
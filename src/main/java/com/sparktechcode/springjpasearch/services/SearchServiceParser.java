@@ -1,12 +1,23 @@
 package com.sparktechcode.springjpasearch.services;
 
+import com.sparktechcode.springjpasearch.cost.SearchCost;
+import com.sparktechcode.springjpasearch.count.SearchKey;
 import com.sparktechcode.springjpasearch.entities.BaseEntity;
-import com.sparktechcode.springjpasearch.exceptions.InternalServerException;
+import com.sparktechcode.springjpasearch.exceptions.BadRequestException;
+import com.sparktechcode.springjpasearch.metadata.EntityClasses;
+import com.sparktechcode.springjpasearch.metadata.EntitySearchMetadata;
+import com.sparktechcode.springjpasearch.queries.CompiledSearch;
+import com.sparktechcode.springjpasearch.queries.SearchQueryCompiler;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.MultiValueMap;
 
-import java.lang.reflect.ParameterizedType;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
-import static com.sparktechcode.springjpasearch.exceptions.SparkError.UNABLE_TO_FIND_ENTITY_CLASS;
+import static com.sparktechcode.springjpasearch.exceptions.SparkError.QUERY_TOO_EXPENSIVE;
+import static com.sparktechcode.springjpasearch.exceptions.SparkError.UNEXPECTED_QUERY_PARAMETER;
 
 public interface SearchServiceParser<I, E extends BaseEntity<I>> extends SearchServiceConfig {
 
@@ -18,6 +29,91 @@ public interface SearchServiceParser<I, E extends BaseEntity<I>> extends SearchS
         return false;
     }
 
+    default CompiledSearch compileSearch(MultiValueMap<String, String> params) {
+        return compileSearch(params, Supplier::get);
+    }
+
+    default CompiledSearch compileSearch(MultiValueMap<String, String> params, Function<Supplier<CompiledSearch>, CompiledSearch> compiler) {
+        return SearchQueryCompiler.compile(getClass(), params.get(filterParamName()), params.get(orderParamName()), this::validateSearch, compiler);
+    }
+
+    default void validateSearch(CompiledSearch search) {
+        var metadata = getSearchMetadata();
+        if (metadata != null && isFieldValidationEnabled()) {
+            metadata.validate(search);
+        }
+    }
+
+    default void checkSearchCost(CompiledSearch search, long offset) {
+        var model = getSearchCostModel();
+        if (model == null) {
+            return;
+        }
+        var cost = SearchCost.of(search, offset, getSearchMetadata());
+        if (cost.offset() > model.maxOffset()) {
+            throw new BadRequestException(QUERY_TOO_EXPENSIVE, "Page offset " + cost.offset() + " exceeds maximum " + model.maxOffset() + ", use cursor pagination.");
+        }
+        if (cost.maxInValues() > model.maxInValues()) {
+            throw new BadRequestException(QUERY_TOO_EXPENSIVE, "Filter list has " + cost.maxInValues() + " values, maximum is " + model.maxInValues() + ".");
+        }
+        var total = model.cost(cost);
+        if (total > model.budget()) {
+            throw new BadRequestException(QUERY_TOO_EXPENSIVE, "Search cost " + total + " exceeds budget " + model.budget() + " (" + cost + ").");
+        }
+    }
+
+    default EntitySearchMetadata getSearchMetadata() {
+        return null;
+    }
+
+    default boolean requestedCursor(MultiValueMap<String, String> params) {
+        return params.containsKey(afterParamName());
+    }
+
+    default String getCursor(MultiValueMap<String, String> params) {
+        var list = params.get(afterParamName());
+        if (list != null && !list.isEmpty() && list.get(0) != null && !list.get(0).isBlank()) {
+            return list.get(0);
+        }
+        return null;
+    }
+
+    default boolean requestedNoCount(MultiValueMap<String, String> params) {
+        var list = params.get(countParamName());
+        if (list != null && !list.isEmpty()) {
+            return "false".equalsIgnoreCase(list.get(0));
+        }
+        return false;
+    }
+
+    default SearchKey getSearchKey(MultiValueMap<String, String> params, Specification<E> specification) {
+        var specificationKey = getSpecificationKey(specification);
+        if (specificationKey == null) {
+            return null;
+        }
+        var filters = params.containsKey(filterParamName()) ? params.get(filterParamName()) : List.<String>of();
+        return new SearchKey(getEntityClass(), filters.stream().filter(Objects::nonNull).sorted().toList(), specificationKey);
+    }
+
+    default String getSpecificationKey(Specification<E> specification) {
+        return specification == null ? "" : null;
+    }
+
+    default List<String> getRequestedFields(MultiValueMap<String, String> params) {
+        var list = params.get(fieldsParamName());
+        var fields = list == null ? List.<String>of() : list.stream()
+                .filter(Objects::nonNull)
+                .flatMap(item -> SearchQueryCompiler.split(item, ',').stream())
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .distinct()
+                .toList();
+        if (fields.isEmpty()) {
+            throw new BadRequestException(UNEXPECTED_QUERY_PARAMETER, "Missing query parameter: " + fieldsParamName());
+        }
+        return fields;
+    }
+
     default int parseIntParam(MultiValueMap<String, String> params, String key, int defaultValue, int min, int max) {
         var list = params.get(key);
         if (list != null && !list.isEmpty()) {
@@ -35,10 +131,6 @@ public interface SearchServiceParser<I, E extends BaseEntity<I>> extends SearchS
 
     @SuppressWarnings("unchecked")
     default Class<E> getEntityClass() {
-        try {
-            return (Class<E>) ((ParameterizedType) this.getClass().getGenericInterfaces()[0]).getActualTypeArguments()[1];
-        } catch (Exception e) {
-            throw new InternalServerException(UNABLE_TO_FIND_ENTITY_CLASS, "Unable to find entity class, you can provide entity class if you override getEntityClass() method.", e);
-        }
+        return (Class<E>) EntityClasses.of(this.getClass());
     }
 }
@@ -2,12 +2,20 @@ package com.sparktechcode.springjpasearch.services;
 
 import com.sparktechcode.springjpasearch.exceptions.BadRequestException;
 import com.sparktechcode.springjpasearch.exceptions.SparkError;
+import com.sparktechcode.springjpasearch.hydration.IdChunks;
+import com.sparktechcode.springjpasearch.metadata.ValueConverters;
+import com.sparktechcode.springjpasearch.plans.SearchFunctions;
+import com.sparktechcode.springjpasearch.plans.SearchParameters;
+import com.sparktechcode.springjpasearch.queries.FieldPath;
+import com.sparktechcode.springjpasearch.queries.FilterCondition;
+import com.sparktechcode.springjpasearch.queries.SearchQueryCompiler;
+import com.sparktechcode.springjpasearch.text.TextMatchStrategy;
 import jakarta.persistence.criteria.*;
 
-import java.io.Serializable;
-import java.math.BigDecimal;
-import java.time.*;
+import java.lang.reflect.Array;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static com.sparktechcode.springjpasearch.exceptions.SparkError.UNSUPPORTED_OPERATION;
@@ -15,14 +23,45 @@ import static com.sparktechcode.springjpasearch.exceptions.SparkError.UNSUPPORTE
 public interface SearchServicePredicateGenerator<E> {
 
     default  Predicate plainQueryToPredicate(String field, Root<E> root, CriteriaBuilder builder, Map<String, Path<?>> associations) {
-        var matcher = SearchService.FILTER_PATTERN.matcher(field);
-        if (matcher.matches() && matcher.groupCount() > 2) {
-            var name = matcher.group(1);
-            var operation = matcher.group(2);
-            var value = matcher.group(3);
-            return fieldToPredicate(name, operation, value, root, builder, associations);
-        }
-        return null;
+        return conditionToPredicate(SearchQueryCompiler.compileCondition(field), root, builder, associations);
+    }
+
+    @SuppressWarnings("unchecked")
+    default <Y extends Comparable<? super Y>> Predicate conditionToPredicate(FilterCondition condition, Root<E> root, CriteriaBuilder builder, Map<String, Path<?>> associations) {
+        var fieldPath = condition.getPath();
+        var property = (Expression<Y>) conditionToExpression(condition, root, builder, associations);
+        var function = condition.getFunction();
+        var type = property.getJavaType();
+        return switch (condition.getOperation()) {
+            case "::" -> builder.equal(property, SearchParameters.bind(builder, property, condition.<Y>getTypedValue(type, value -> prepareValue(property, value, function))));
+            case "!:" -> builder.notEqual(property, SearchParameters.bind(builder, property, condition.<Y>getTypedValue(type, value -> prepareValue(property, value, function))));
+            case ":>" -> builder.greaterThan(property, SearchParameters.bind(builder, property, condition.<Y>getTypedValue(type, value -> prepareValue(property, value, function))));
+            case ":<" -> builder.lessThan(property, SearchParameters.bind(builder, property, condition.<Y>getTypedValue(type, value -> prepareValue(property, value, function))));
+            case ">:" -> builder.greaterThanOrEqualTo(property, SearchParameters.bind(builder, property, condition.<Y>getTypedValue(type, value -> prepareValue(property, value, function))));
+            case "<:" -> builder.lessThanOrEqualTo(property, SearchParameters.bind(builder, property, condition.<Y>getTypedValue(type, value -> prepareValue(property, value, function))));
+            case ":~" -> getTextMatchStrategy(fieldPath).contains(builder, (Expression<String>) property, condition.getValue());
+            case "!~" -> builder.not(getTextMatchStrategy(fieldPath).contains(builder, (Expression<String>) property, condition.getValue()));
+            case "~:" -> getTextMatchStrategy(fieldPath).startsWith(builder, (Expression<String>) property, condition.getValue());
+            case "~~" -> getTextMatchStrategy(fieldPath).equalsIgnoreCase(builder, (Expression<String>) property, condition.getValue());
+            case "/:" -> inPredicate(property, condition.<Y>getTypedValues(type, value -> prepareValue(property, value, function)), builder);
+            case "!/" -> builder.not(inPredicate(property, condition.<Y>getTypedValues(type, value -> prepareValue(property, value, function)), builder));
+            case "!!" -> builder.isNotNull(property);
+            case "<>" -> builder.isNull(property);
+            default -> throw new BadRequestException(UNSUPPORTED_OPERATION, "Unsupported operation: " + condition.getOperation());
+        };
+    }
+
+    default Expression<?> conditionToExpression(FilterCondition condition, Root<E> root, CriteriaBuilder builder, Map<String, Path<?>> associations) {
+        var fieldPath = condition.getPath();
+        var path = fieldPath.isNested() || associations.containsKey(fieldPath.field()) ? joinTables(fieldPath, root, associations) : getPath(root, fieldPath.field());
+        return evaluateFunction(path, condition.getFunction(), builder);
+    }
+
+    @SuppressWarnings("unchecked")
+    default <Y extends Comparable<? super Y>> boolean isArrayBound(FilterCondition condition, Root<E> root, CriteriaBuilder builder) {
+        var property = (Expression<Y>) conditionToExpression(condition, root, builder, new HashMap<>());
+        var values = condition.<Y>getTypedValues(property.getJavaType(), value -> prepareValue(property, value, condition.getFunction()));
+        return toInArray(property, values, builder) != null;
     }
 
     @SuppressWarnings("unchecked")
@@ -31,7 +70,11 @@ public interface SearchServicePredicateGenerator<E> {
         var fieldPath = operations[0];
         var function = operations.length > 1 ? operations[1] : null;
         var path = fieldPath.contains(".") ? joinTables(fieldPath, root, associations) : getPath(root, fieldPath);
-        return fieldToPredicate((Expression<Y>) evaluateFunction(path, function, builder), operation, value, function, builder);
+        return fieldToPredicate((Expression<Y>) evaluateFunction(path, function, builder), operation, value, function, getTextMatchStrategy(FieldPath.of(fieldPath)), builder);
+    }
+
+    default TextMatchStrategy getTextMatchStrategy(FieldPath field) {
+        return TextMatchStrategy.upperCase();
     }
 
     default Expression<?> evaluateFunction(Expression<?> path, String function, CriteriaBuilder builder) {
@@ -41,46 +84,83 @@ public interface SearchServicePredicateGenerator<E> {
         return path;
     }
 
-    @SuppressWarnings("unchecked")
     default <Y extends Comparable<? super Y>> Predicate fieldToPredicate(Expression<Y> property, String operation, String value, String function, CriteriaBuilder builder) {
+        return fieldToPredicate(property, operation, value, function, TextMatchStrategy.upperCase(), builder);
+    }
+
+    @SuppressWarnings("unchecked")
+    default <Y extends Comparable<? super Y>> Predicate fieldToPredicate(Expression<Y> property, String operation, String value, String function, TextMatchStrategy textMatchStrategy, CriteriaBuilder builder) {
         return switch (operation) {
-            case "::" -> builder.equal(property, prepareValue(property, value, function));
-            case "!:" -> builder.notEqual(property, prepareValue(property, value, function));
-            case ":>" -> builder.greaterThan(property, prepareValue(property, value, function));
-            case ":<" -> builder.lessThan(property, prepareValue(property, value, function));
-            case ">:" -> builder.greaterThanOrEqualTo(property, prepareValue(property, value, function));
-            case "<:" -> builder.lessThanOrEqualTo(property, prepareValue(property, value, function));
-            case ":~" -> builder.like(builder.upper((Expression<String>) property), "%" + value.toUpperCase() + "%");
-            case "!~" -> builder.notLike(builder.upper((Expression<String>) property), "%" + value.toUpperCase() + "%");
-            case "/:" -> property.in(Arrays.stream(value.split(",")).map(part -> prepareValue(property, part, function)).toList());
-            case "!/" -> builder.not(property.in(Arrays.stream(value.split(",")).map(part -> prepareValue(property, part, function)).toList()));
+            case "::" -> builder.equal(property, SearchParameters.bind(builder, property, prepareValue(property, value, function)));
+            case "!:" -> builder.notEqual(property, SearchParameters.bind(builder, property, prepareValue(property, value, function)));
+            case ":>" -> builder.greaterThan(property, SearchParameters.bind(builder, property, prepareValue(property, value, function)));
+            case ":<" -> builder.lessThan(property, SearchParameters.bind(builder, property, prepareValue(property, value, function)));
+            case ">:" -> builder.greaterThanOrEqualTo(property, SearchParameters.bind(builder, property, prepareValue(property, value, function)));
+            case "<:" -> builder.lessThanOrEqualTo(property, SearchParameters.bind(builder, property, prepareValue(property, value, function)));
+            case ":~" -> textMatchStrategy.contains(builder, (Expression<String>) property, value);
+            case "!~" -> builder.not(textMatchStrategy.contains(builder, (Expression<String>) property, value));
+            case "~:" -> textMatchStrategy.startsWith(builder, (Expression<String>) property, value);
+            case "~~" -> textMatchStrategy.equalsIgnoreCase(builder, (Expression<String>) property, value);
+            case "/:" -> inPredicate(property, Arrays.stream(value.split(",")).map(part -> prepareValue(property, part, function)).toList(), builder);
+            case "!/" -> builder.not(inPredicate(property, Arrays.stream(value.split(",")).map(part -> prepareValue(property, part, function)).toList(), builder));
             case "!!" -> builder.isNotNull(property);
             case "<>" -> builder.isNull(property);
             default -> throw new BadRequestException(UNSUPPORTED_OPERATION, "Unsupported operation: " + operation);
         };
     }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
+    default int getArrayInListThreshold() {
+        return 64;
+    }
+
+    default boolean isArrayInList(Expression<?> property, int size, CriteriaBuilder builder) {
+        return size > getArrayInListThreshold()
+                && !property.getJavaType().isEnum()
+                && SearchFunctions.isRegistered(builder, SearchFunctions.IN_ARRAY);
+    }
+
+    default <Y> Predicate inPredicate(Expression<Y> property, Y[] values, CriteriaBuilder builder) {
+        return inPredicate(property, Arrays.asList(values), builder);
+    }
+
+    default <Y> Predicate inPredicate(Expression<Y> property, List<Y> values, CriteriaBuilder builder) {
+        var array = toInArray(property, values, builder);
+        if (array != null) {
+            return builder.isTrue(builder.function(SearchFunctions.IN_ARRAY, Boolean.class, property, SearchParameters.bind(builder, array)));
+        }
+        // lists above the array threshold are not padded, they would multiply the bind parameters of large lists
+        var padded = IdChunks.pad(values, getArrayInListThreshold());
+        var parameters = new Expression<?>[padded.size()];
+        for (var i = 0; i < parameters.length; i++) {
+            parameters[i] = SearchParameters.bind(builder, property, padded.get(i));
+        }
+        return property.in(parameters);
+    }
+
+    @SuppressWarnings("unchecked")
+    default <Y> Y[] toInArray(Expression<Y> property, List<Y> values, CriteriaBuilder builder) {
+        if (!isArrayInList(property, values.size(), builder)) {
+            return null;
+        }
+        var type = ValueConverters.boxed(property.getJavaType());
+        for (var value : values) {
+            // types without a converter keep string values, they are compared in an in list
+            if (value != null && !type.isInstance(value)) {
+                return null;
+            }
+        }
+        return values.toArray((Y[]) Array.newInstance(type, values.size()));
+    }
+
+    @SuppressWarnings("unchecked")
     default <Y extends Comparable<? super Y>> Y prepareValue(Expression<Y> property, String value, String function) {
         try {
             if (function != null) {
                 return (Y) Integer.valueOf(value);
-            } else {
-                var type = property.getJavaType();
-                if (String.class.isAssignableFrom(type)) return (Y) value;
-                else if (Boolean.class.isAssignableFrom(type)) return (Y) Boolean.valueOf(value);
-                else if (type.isEnum()) return (Y) Enum.valueOf((Class) type, value);
-                else if (Double.class.isAssignableFrom(type)) return (Y) Double.valueOf(value);
-                else if (Float.class.isAssignableFrom(type)) return (Y) Float.valueOf(value);
-                else if (BigDecimal.class.isAssignableFrom(type)) return (Y) BigDecimal.valueOf(Double.parseDouble(value));
-                else if (Long.class.isAssignableFrom(type)) return (Y) Long.valueOf(value);
-                else if (Integer.class.isAssignableFrom(type)) return (Y) Integer.valueOf(value);
-                else if (LocalDate.class.isAssignableFrom(type)) return (Y) LocalDate.parse(value);
-                else if (LocalTime.class.isAssignableFrom(type)) return (Y) LocalTime.parse(value);
-                else if (LocalDateTime.class.isAssignableFrom(type)) return (Y) LocalDateTime.parse(value);
-                else if (OffsetDateTime.class.isAssignableFrom(type)) return (Y) OffsetDateTime.parse(value);
-                else if (Instant.class.isAssignableFrom(type)) return (Y) Instant.parse(value);
-                else if (Serializable.class.isAssignableFrom(type)) return (Y) value;
+            }
+            var converter = ValueConverters.forType(property.getJavaType());
+            if (converter != null) {
+                return (Y) converter.convert(value);
             }
         } catch (Exception e) {
             throw new BadRequestException(SparkError.UNEXPECTED_QUERY_PARAMETER, e.getMessage(), e);
@@ -96,18 +176,23 @@ public interface SearchServicePredicateGenerator<E> {
     }
 
     default  <Y> Path<Y> joinTables(String field, Root<E> root, Map<String, Path<?>> joinedAssociations) {
-        var associations = field.split("\\.");
-        if (joinedAssociations.containsKey(field)) {
-            return (Path<Y>) joinedAssociations.get(field);
+        return joinTables(FieldPath.of(field), root, joinedAssociations);
+    }
+
+    @SuppressWarnings("unchecked")
+    default <Y> Path<Y> joinTables(FieldPath field, Root<E> root, Map<String, Path<?>> joinedAssociations) {
+        var joined = joinedAssociations.get(field.field());
+        if (joined != null) {
+            return (Path<Y>) joined;
         }
         Path<Y> path = (Path<Y>) root;
-        var associationPath = "";
-        for (var association : associations) {
-            associationPath = associationPath.isEmpty() ? association : (associationPath + "." + association);
-            if (joinedAssociations.containsKey(associationPath)) {
-                path = (Path<Y>) joinedAssociations.get(associationPath);
+        for (var i = 0; i < field.names().size(); i++) {
+            var associationPath = field.prefixes().get(i);
+            var association = joinedAssociations.get(associationPath);
+            if (association != null) {
+                path = (Path<Y>) association;
             } else {
-                path = path.get(association);
+                path = path.get(field.names().get(i));
                 joinedAssociations.put(associationPath, path);
             }
         }
@@ -1,86 +1,250 @@
 package com.sparktechcode.springjpasearch.services;
 
 import com.sparktechcode.springjpasearch.entities.BaseEntity;
+import com.sparktechcode.springjpasearch.exceptions.BadRequestException;
+import com.sparktechcode.springjpasearch.hydration.IdChunks;
+import com.sparktechcode.springjpasearch.metadata.EntitySearchMetadata;
+import com.sparktechcode.springjpasearch.pagination.SearchCursor;
+import com.sparktechcode.springjpasearch.plans.PlannedSpecification;
+import com.sparktechcode.springjpasearch.plans.SearchParameters;
+import com.sparktechcode.springjpasearch.queries.CompiledSearch;
+import com.sparktechcode.springjpasearch.queries.FilterCondition;
+import com.sparktechcode.springjpasearch.queries.FilterGroup;
+import com.sparktechcode.springjpasearch.queries.OrderField;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.*;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.MultiValueMap;
 
 import java.util.*;
 
-import static java.util.stream.Collectors.toList;
+import static com.sparktechcode.springjpasearch.exceptions.SparkError.INVALID_CURSOR;
 
-public interface SearchServiceSpecificationGenerator<I, E extends BaseEntity<I>> extends SearchServicePredicateGenerator<E>, SearchServiceConfig {
+public interface SearchServiceSpecificationGenerator<I, E extends BaseEntity<I>> extends SearchServicePredicateGenerator<E>, SearchServiceParser<I, E> {
 
+    EntityManager getEntityManager();
 
     default Specification<E> toDataSpecification(MultiValueMap<String, String> params, Specification<E> specification) {
-        var associations = new HashMap<String, Path<?>>();
-        return (root, query, builder) -> {
-            var filter = getWherePredicates(params, root, builder, associations);
+        var search = compileSearch(params);
+        var cursor = requestedCursor(params) && getCursor(params) != null ? SearchCursor.decode(getCursor(params)) : null;
+        return planned(search, specification, requestedCursor(params), cursor, (root, query, builder) -> {
+            var associations = new HashMap<String, Path<?>>();
+            var filter = getWherePredicates(search, root, query, builder, associations);
             if (specification != null) {
                 filter.add(specification.toPredicate(root, query, builder));
             }
-            query.orderBy(getOrderPredicates(params, root, builder, associations));
+            if (query != null && requiresDistinct(search) && !getEntityClass().equals(query.getResultType())) {
+                // entity queries ordered by a collection cannot be distinct, duplicates are removed when they are read
+                query.distinct(true);
+            }
+            var orders = getOrderPredicates(search, root, builder, associations, requestedCursor(params));
+            if (requestedCursor(params)) {
+                orders.add(builder.asc(root.get(getIdFieldName())));
+                if (cursor != null) {
+                    filter.add(cursorToPredicate(cursor, orders, builder));
+                }
+            }
+            query.orderBy(orders);
             return builder.and(filter.toArray(new Predicate[0]));
-        };
+        });
     }
 
     default Specification<E> toCountSpecification(MultiValueMap<String, String> params, Specification<E> specification) {
-        var associations = new HashMap<String, Path<?>>();
-        return (root, query, builder) -> {
-            var filter = getWherePredicates(params, root, builder, associations);
+        var search = compileSearch(params);
+        return planned(search, specification, false, null, (root, query, builder) -> {
+            var associations = new HashMap<String, Path<?>>();
+            var filter = getWherePredicates(search, root, query, builder, associations);
             if (specification != null) {
                 filter.add(specification.toPredicate(root, query, builder));
             }
+            if (query != null && requiresDistinct(new CompiledSearch(search.filters(), List.of()))) {
+                query.distinct(true);
+            }
             return builder.and(filter.toArray(new Predicate[0]));
-        };
+        });
     }
 
-    private List<Order> getOrderPredicates(MultiValueMap<String, String> params, Root<E> root, CriteriaBuilder builder, Map<String, Path<?>> associations) {
-        if (params.containsKey(orderParamName())) {
-            var list = params.get(orderParamName());
-            return list.stream()
-                    .map(order -> queryToOrder(order, root, builder, associations))
-                    .filter(Objects::nonNull)
-                    .collect(toList());
-        } else {
-            return new ArrayList<>();
+    private Specification<E> planned(CompiledSearch search, Specification<E> specification, boolean cursorOrder, List<String> cursor, Specification<E> generated) {
+        var specificationKey = getSpecificationKey(specification);
+        if (!isQueryPlanReuseEnabled() || specificationKey == null) {
+            return generated;
+        }
+        var plan = new ArrayList<Object>();
+        plan.add(search.shape());
+        Root<E> root = null;
+        for (var group : search.filters()) {
+            for (var condition : group.conditions()) {
+                if (!condition.getValues().isEmpty()) {
+                    var size = condition.getValues().size();
+                    if (size <= getArrayInListThreshold()) {
+                        plan.add(IdChunks.paddedSize(size, getArrayInListThreshold()));
+                        continue;
+                    }
+                    // the same decision as the predicate, lists that fall back to an in list are keyed by their size
+                    var builder = getEntityManager().getCriteriaBuilder();
+                    root = root == null ? builder.createQuery().from(getEntityClass()) : root;
+                    plan.add(isArrayBound(condition, root, builder) ? "array" : size);
+                } else if (condition.isTextOperation()) {
+                    plan.add(getTextMatchStrategy(condition.getPath()));
+                }
+            }
         }
+        if (cursorOrder) {
+            plan.add(cursor == null ? "cursor" : cursor.stream().map(value -> value == null ? "null" : "value").toList());
+        }
+        plan.add(specificationKey);
+        return new PlannedSpecification<>(plan, generated);
     }
 
-    private Order queryToOrder(String order, Root<E> root, CriteriaBuilder builder, Map<String, Path<?>> associations) {
-        if (order == null) {
-            return null;
+    private List<Order> getOrderPredicates(CompiledSearch search, Root<E> root, CriteriaBuilder builder, Map<String, Path<?>> associations, boolean cursorOrder) {
+        var orders = new ArrayList<Order>(search.orders().size() + 1);
+        for (var order : search.orders()) {
+            orders.add(fieldToOrder(order, root, builder, associations, cursorOrder));
+        }
+        return orders;
+    }
+
+    private Order fieldToOrder(OrderField order, Root<E> root, CriteriaBuilder builder, Map<String, Path<?>> associations, boolean cursorOrder) {
+        var field = order.path();
+        var metadata = getSearchMetadata();
+        Path<?> path;
+        if (field.isNested()) {
+            path = joinTables(field, root, associations);
+        } else if (metadata != null && metadata.getCollectionIndex(field) == 0) {
+            path = associations.computeIfAbsent(field.field(), name -> root.join(name, JoinType.LEFT));
         } else {
-            var matcher = ORDER_PATTERN.matcher(order);
-            if (matcher.matches() && matcher.groupCount() > 1) {
-                var field = matcher.group(1);
-                var direction = matcher.group(2);
-                var path = field.contains(".") ? joinTables(field, root, associations) : getPath(root, field);
-                return direction.equals("a") ? builder.asc(path) : builder.desc(path);
-            } else {
-                return null;
+            path = getPath(root, field.field());
+        }
+        if (cursorOrder && builder instanceof HibernateCriteriaBuilder hibernate) {
+            // cursor predicates treat null as the largest value, so the null ordering must not be left to the database
+            return order.ascending() ? hibernate.asc(path, false) : hibernate.desc(path, true);
+        }
+        return order.ascending() ? builder.asc(path) : builder.desc(path);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <Y extends Comparable<? super Y>> Predicate cursorToPredicate(List<String> values, List<Order> orders, CriteriaBuilder builder) {
+        if (values.size() != orders.size()) {
+            throw new BadRequestException(INVALID_CURSOR, "Cursor does not match requested order.");
+        }
+        var alternatives = new ArrayList<Predicate>();
+        var equalities = new ArrayList<Predicate>();
+        for (var i = 0; i < orders.size(); i++) {
+            var order = orders.get(i);
+            var expression = (Expression<Y>) order.getExpression();
+            if (values.get(i) == null) {
+                if (!order.isAscending()) {
+                    alternatives.add(after(equalities, builder.isNotNull(expression), builder));
+                }
+                equalities.add(builder.isNull(expression));
+                continue;
             }
+            var value = SearchParameters.bind(builder, expression, prepareValue(expression, values.get(i), null));
+            alternatives.add(after(equalities, order.isAscending()
+                    ? builder.or(builder.greaterThan(expression, value), builder.isNull(expression))
+                    : builder.lessThan(expression, value), builder));
+            equalities.add(builder.equal(expression, value));
         }
+        return builder.or(alternatives.toArray(new Predicate[0]));
+    }
+
+    private Predicate after(List<Predicate> equalities, Predicate predicate, CriteriaBuilder builder) {
+        var alternative = new ArrayList<>(equalities);
+        alternative.add(predicate);
+        return builder.and(alternative.toArray(new Predicate[0]));
     }
 
     default List<Predicate> getWherePredicates(MultiValueMap<String, String> params, Root<E> root, CriteriaBuilder builder, HashMap<String, Path<?>> associations) {
-        var predicates = new ArrayList<Predicate>();
-        if (params.containsKey(filterParamName())) {
-            params.get(filterParamName()).forEach(field -> predicates.add(queryToPredicate(field, root, builder, associations)));
+        return getWherePredicates(compileSearch(params), root, builder, associations);
+    }
+
+    default List<Predicate> getWherePredicates(CompiledSearch search, Root<E> root, CriteriaBuilder builder, Map<String, Path<?>> associations) {
+        var predicates = new ArrayList<Predicate>(search.filters().size() + 1);
+        for (var filter : search.filters()) {
+            predicates.add(groupToPredicate(filter, root, builder, associations));
         }
         return predicates;
     }
 
-    private Predicate queryToPredicate(String field, Root<E> root, CriteriaBuilder builder, Map<String, Path<?>> associations) {
-        if (field != null) {
-            if (field.contains("|")) {
-                return builder.or(Arrays.stream(field.split("\\|"))
-                        .map(item -> plainQueryToPredicate(item, root, builder, associations))
-                        .toArray(Predicate[]::new));
+    default List<Predicate> getWherePredicates(CompiledSearch search, Root<E> root, CriteriaQuery<?> query, CriteriaBuilder builder, Map<String, Path<?>> associations) {
+        var metadata = getSearchMetadata();
+        if (query == null || metadata == null) {
+            return getWherePredicates(search, root, builder, associations);
+        }
+        var predicates = new ArrayList<Predicate>(search.filters().size() + 1);
+        var collections = new LinkedHashMap<String, List<FilterCondition>>();
+        for (var filter : search.filters()) {
+            if (filter.isDisjunction()) {
+                predicates.add(disjunctionToPredicate(filter, metadata, root, query, builder, associations));
+                continue;
+            }
+            var condition = filter.conditions().get(0);
+            var index = metadata.getCollectionIndex(condition.getPath());
+            if (index < 0) {
+                predicates.add(conditionToPredicate(condition, root, builder, associations));
+            } else {
+                collections.computeIfAbsent(condition.getPath().prefixes().get(index), key -> new ArrayList<>()).add(condition);
+            }
+        }
+        for (var conditions : collections.values()) {
+            predicates.add(existsPredicate(conditions, metadata, root, query, builder, false));
+        }
+        return predicates;
+    }
+
+    default boolean requiresDistinct(CompiledSearch search) {
+        var metadata = getSearchMetadata();
+        if (metadata == null) {
+            return search.orders().stream().anyMatch(order -> order.path().isNested())
+                    || search.filters().stream().anyMatch(group -> group.conditions().stream().anyMatch(condition -> condition.getPath().isNested()));
+        }
+        return search.orders().stream().anyMatch(order -> metadata.getCollectionIndex(order.path()) >= 0);
+    }
+
+    private Predicate disjunctionToPredicate(FilterGroup group, EntitySearchMetadata metadata, Root<E> root, CriteriaQuery<?> query, CriteriaBuilder builder, Map<String, Path<?>> associations) {
+        var predicates = new ArrayList<Predicate>(group.conditions().size());
+        var collections = new LinkedHashMap<String, List<FilterCondition>>();
+        for (var condition : group.conditions()) {
+            var index = metadata.getCollectionIndex(condition.getPath());
+            if (index < 0) {
+                predicates.add(conditionToPredicate(condition, root, builder, associations));
             } else {
-                return plainQueryToPredicate(field, root, builder, associations);
+                collections.computeIfAbsent(condition.getPath().prefixes().get(index), key -> new ArrayList<>()).add(condition);
+            }
+        }
+        for (var conditions : collections.values()) {
+            predicates.add(existsPredicate(conditions, metadata, root, query, builder, true));
+        }
+        return builder.or(predicates.toArray(new Predicate[0]));
+    }
+
+    private Predicate existsPredicate(List<FilterCondition> conditions, EntitySearchMetadata metadata, Root<E> root, CriteriaQuery<?> query, CriteriaBuilder builder, boolean disjunction) {
+        var path = conditions.get(0).getPath();
+        var index = metadata.getCollectionIndex(path);
+        var subquery = query.subquery(Integer.class);
+        From<?, ?> from = subquery.correlate(root);
+        var joins = new HashMap<String, Path<?>>();
+        for (var i = 0; i <= index; i++) {
+            from = from.join(path.names().get(i));
+            joins.put(path.prefixes().get(i), from);
+        }
+        var predicates = new Predicate[conditions.size()];
+        for (var i = 0; i < predicates.length; i++) {
+            predicates[i] = conditionToPredicate(conditions.get(i), root, builder, joins);
+        }
+        subquery.select(builder.literal(1)).where(disjunction ? builder.or(predicates) : builder.and(predicates));
+        return builder.exists(subquery);
+    }
+
+    private Predicate groupToPredicate(FilterGroup group, Root<E> root, CriteriaBuilder builder, Map<String, Path<?>> associations) {
+        if (group.isDisjunction()) {
+            var predicates = new Predicate[group.conditions().size()];
+            for (var i = 0; i < predicates.length; i++) {
+                predicates[i] = conditionToPredicate(group.conditions().get(i), root, builder, associations);
             }
+            return builder.or(predicates);
         }
-        return null;
+        return conditionToPredicate(group.conditions().get(0), root, builder, associations);
     }
 }
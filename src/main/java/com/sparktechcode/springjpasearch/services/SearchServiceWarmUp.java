@@ -0,0 +1,18 @@
+package com.sparktechcode.springjpasearch.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class SearchServiceWarmUp implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final List<SearchService<?, ?>> services;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        services.forEach(SearchService::warmUp);
+    }
+}
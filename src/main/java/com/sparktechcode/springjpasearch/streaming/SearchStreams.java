@@ -0,0 +1,81 @@
+package com.sparktechcode.springjpasearch.streaming;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+public final class SearchStreams {
+
+    private static final byte[] NEW_LINE = "\n".getBytes(StandardCharsets.UTF_8);
+
+    private SearchStreams() {
+    }
+
+    public static <T> StreamingResponseBody ndjson(TransactionOperations transactions, Supplier<Stream<T>> source, ObjectMapper mapper) {
+        return outputStream -> write(transactions, source, outputStream, item -> {
+            outputStream.write(mapper.writeValueAsBytes(item));
+            outputStream.write(NEW_LINE);
+        });
+    }
+
+    public static <T> StreamingResponseBody csv(TransactionOperations transactions, Supplier<Stream<T>> source, List<String> header, Function<T, List<?>> columns) {
+        return outputStream -> {
+            outputStream.write(toCsvLine(header));
+            write(transactions, source, outputStream, item -> outputStream.write(toCsvLine(columns.apply(item))));
+        };
+    }
+
+    private static <T> void write(TransactionOperations transactions, Supplier<Stream<T>> source, OutputStream outputStream, ItemWriter<T> writer) throws IOException {
+        try {
+            transactions.executeWithoutResult(status -> {
+                try (var stream = source.get()) {
+                    stream.forEach(item -> {
+                        try {
+                            writer.write(item);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        outputStream.flush();
+    }
+
+    private static byte[] toCsvLine(List<?> values) {
+        var line = new StringBuilder();
+        for (var i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            var value = values.get(i);
+            if (value != null) {
+                line.append(escapeCsv(value.toString()));
+            }
+        }
+        return line.append('\n').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface ItemWriter<T> {
+        void write(T item) throws IOException;
+    }
+}
@@ -0,0 +1,47 @@
+package com.sparktechcode.springjpasearch.text;
+
+import com.sparktechcode.springjpasearch.plans.SearchParameters;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+enum CaseTextMatchStrategy implements TextMatchStrategy {
+    UPPER,
+    LOWER,
+    SENSITIVE;
+
+    @Override
+    public Predicate contains(CriteriaBuilder builder, Expression<String> field, String value) {
+        return builder.like(normalize(builder, field), SearchParameters.bind(builder, field, "%" + LikePatterns.escape(normalize(value)) + "%"), LikePatterns.ESCAPE);
+    }
+
+    @Override
+    public Predicate startsWith(CriteriaBuilder builder, Expression<String> field, String value) {
+        return builder.like(normalize(builder, field), SearchParameters.bind(builder, field, LikePatterns.escape(normalize(value)) + "%"), LikePatterns.ESCAPE);
+    }
+
+    @Override
+    public Predicate equalsIgnoreCase(CriteriaBuilder builder, Expression<String> field, String value) {
+        if (this == SENSITIVE) {
+            // `~~` ignores case by definition, a case sensitive field is compared in upper case
+            return UPPER.equalsIgnoreCase(builder, field, value);
+        }
+        return builder.equal(normalize(builder, field), SearchParameters.bind(builder, field, normalize(value)));
+    }
+
+    private Expression<String> normalize(CriteriaBuilder builder, Expression<String> field) {
+        return switch (this) {
+            case UPPER -> builder.upper(field);
+            case LOWER -> builder.lower(field);
+            case SENSITIVE -> field;
+        };
+    }
+
+    private String normalize(String value) {
+        return switch (this) {
+            case UPPER -> value.toUpperCase();
+            case LOWER -> value.toLowerCase();
+            case SENSITIVE -> value;
+        };
+    }
+}
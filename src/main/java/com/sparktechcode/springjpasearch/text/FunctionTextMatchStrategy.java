@@ -0,0 +1,31 @@
+package com.sparktechcode.springjpasearch.text;
+
+import com.sparktechcode.springjpasearch.plans.SearchParameters;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+@EqualsAndHashCode
+class FunctionTextMatchStrategy implements TextMatchStrategy {
+
+    private final String function;
+    private final TextMatchStrategy fallback;
+
+    @Override
+    public Predicate contains(CriteriaBuilder builder, Expression<String> field, String value) {
+        return builder.isTrue(builder.function(function, Boolean.class, field, SearchParameters.bind(builder, field, value)));
+    }
+
+    @Override
+    public Predicate startsWith(CriteriaBuilder builder, Expression<String> field, String value) {
+        return fallback.startsWith(builder, field, value);
+    }
+
+    @Override
+    public Predicate equalsIgnoreCase(CriteriaBuilder builder, Expression<String> field, String value) {
+        return fallback.equalsIgnoreCase(builder, field, value);
+    }
+}
@@ -0,0 +1,34 @@
+package com.sparktechcode.springjpasearch.text;
+
+import com.sparktechcode.springjpasearch.plans.SearchParameters;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+
+class IlikeTextMatchStrategy implements TextMatchStrategy {
+
+    static final IlikeTextMatchStrategy INSTANCE = new IlikeTextMatchStrategy();
+
+    @Override
+    public Predicate contains(CriteriaBuilder builder, Expression<String> field, String value) {
+        return ilike(builder, field, "%" + LikePatterns.escape(value) + "%");
+    }
+
+    @Override
+    public Predicate startsWith(CriteriaBuilder builder, Expression<String> field, String value) {
+        return ilike(builder, field, LikePatterns.escape(value) + "%");
+    }
+
+    @Override
+    public Predicate equalsIgnoreCase(CriteriaBuilder builder, Expression<String> field, String value) {
+        return ilike(builder, field, LikePatterns.escape(value));
+    }
+
+    private Predicate ilike(CriteriaBuilder builder, Expression<String> field, String pattern) {
+        if (builder instanceof HibernateCriteriaBuilder hibernate) {
+            return hibernate.ilike(field, SearchParameters.bind(builder, field, pattern), LikePatterns.ESCAPE);
+        }
+        return builder.like(builder.upper(field), SearchParameters.bind(builder, field, pattern.toUpperCase()), LikePatterns.ESCAPE);
+    }
+}
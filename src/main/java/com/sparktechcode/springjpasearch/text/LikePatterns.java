@@ -0,0 +1,22 @@
+package com.sparktechcode.springjpasearch.text;
+
+final class LikePatterns {
+
+    // not a backslash, it has a special meaning in string literals of some databases
+    static final char ESCAPE = '!';
+
+    private LikePatterns() {
+    }
+
+    static String escape(String value) {
+        var escaped = new StringBuilder(value.length() + 8);
+        for (var i = 0; i < value.length(); i++) {
+            var character = value.charAt(i);
+            if (character == ESCAPE || character == '%' || character == '_') {
+                escaped.append(ESCAPE);
+            }
+            escaped.append(character);
+        }
+        return escaped.toString();
+    }
+}
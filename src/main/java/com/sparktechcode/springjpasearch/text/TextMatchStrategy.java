@@ -0,0 +1,34 @@
+package com.sparktechcode.springjpasearch.text;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+public interface TextMatchStrategy {
+
+    Predicate contains(CriteriaBuilder builder, Expression<String> field, String value);
+
+    Predicate startsWith(CriteriaBuilder builder, Expression<String> field, String value);
+
+    Predicate equalsIgnoreCase(CriteriaBuilder builder, Expression<String> field, String value);
+
+    static TextMatchStrategy upperCase() {
+        return CaseTextMatchStrategy.UPPER;
+    }
+
+    static TextMatchStrategy lowerCase() {
+        return CaseTextMatchStrategy.LOWER;
+    }
+
+    static TextMatchStrategy caseSensitive() {
+        return CaseTextMatchStrategy.SENSITIVE;
+    }
+
+    static TextMatchStrategy ilike() {
+        return IlikeTextMatchStrategy.INSTANCE;
+    }
+
+    static TextMatchStrategy function(String function, TextMatchStrategy fallback) {
+        return new FunctionTextMatchStrategy(function, fallback);
+    }
+}
@@ -0,0 +1,6 @@
+package com.sparktechcode.springjpasearch.usage;
+
+import java.util.List;
+
+public record IndexSuggestion(String entity, String table, List<String> columns, List<String> shapes, long searches, double totalMillis) {
+}
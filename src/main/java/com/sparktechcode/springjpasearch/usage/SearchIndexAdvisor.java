@@ -0,0 +1,126 @@
+package com.sparktechcode.springjpasearch.usage;
+
+import com.sparktechcode.springjpasearch.metadata.IndexedColumns;
+import com.sparktechcode.springjpasearch.queries.FilterCondition;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+public class SearchIndexAdvisor {
+
+    private static final Set<String> EQUALITY_OPERATIONS = Set.of("::", "/:", "<>");
+    private static final Set<String> RANGE_OPERATIONS = Set.of(":>", ":<", ">:", "<:");
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public SearchIndexAdvisor(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public List<IndexSuggestion> suggest(List<SearchUsage> usages, int limit) {
+        var suggestions = new LinkedHashMap<List<Object>, IndexSuggestion>();
+        var slowest = usages.stream()
+                .filter(usage -> usage.getErrors() < usage.getSearches())
+                .sorted((first, second) -> Double.compare(second.getTotalMillis(), first.getTotalMillis()))
+                .limit(limit)
+                .toList();
+        for (var usage : slowest) {
+            var persister = getPersister(usage.getEntityClass());
+            if (persister == null) {
+                continue;
+            }
+            var index = getIndexColumns(usage, persister);
+            var columns = index.columns();
+            if (columns.isEmpty() || isCovered(usage.getEntityClass(), persister, index)) {
+                continue;
+            }
+            var table = persister.getTableName();
+            suggestions.merge(List.of(table, columns), new IndexSuggestion(usage.getEntity(), table, columns, List.of(usage.getShape()), usage.getSearches(), usage.getTotalMillis()), (current, added) -> {
+                var shapes = new ArrayList<>(current.shapes());
+                shapes.addAll(added.shapes());
+                return new IndexSuggestion(current.entity(), table, columns, shapes, current.searches() + added.searches(), current.totalMillis() + added.totalMillis());
+            });
+        }
+        return List.copyOf(suggestions.values());
+    }
+
+    private IndexColumns getIndexColumns(SearchUsage usage, AbstractEntityPersister persister) {
+        var search = usage.getSearch();
+        var equality = new LinkedHashSet<String>();
+        var range = new LinkedHashSet<String>();
+        for (var group : search.filters()) {
+            if (group.isDisjunction()) {
+                continue;
+            }
+            var condition = group.conditions().get(0);
+            if (!isIndexable(condition)) {
+                continue;
+            }
+            var operation = condition.getOperation();
+            if (EQUALITY_OPERATIONS.contains(operation)) {
+                equality.addAll(getColumns(persister, condition.getPath().field()));
+            } else if (RANGE_OPERATIONS.contains(operation)) {
+                range.addAll(getColumns(persister, condition.getPath().field()));
+            }
+        }
+        var ordered = new LinkedHashSet<String>();
+        for (var order : search.orders()) {
+            if (order.path().isNested()) {
+                break;
+            }
+            getColumns(persister, order.path().field()).stream().filter(column -> !equality.contains(column)).forEach(ordered::add);
+        }
+        range.stream().filter(column -> !equality.contains(column) && !ordered.contains(column)).findFirst().ifPresent(ordered::add);
+        return new IndexColumns(List.copyOf(equality), List.copyOf(ordered));
+    }
+
+    private boolean isIndexable(FilterCondition condition) {
+        return condition.getFunction() == null && !condition.getPath().isNested();
+    }
+
+    private boolean isCovered(Class<?> entityClass, AbstractEntityPersister persister, IndexColumns columns) {
+        var indexes = new ArrayList<>(IndexedColumns.getIndexes(entityClass));
+        indexes.add(Arrays.stream(persister.getIdentifierColumnNames()).map(IndexedColumns::normalize).toList());
+        var equality = new HashSet<>(columns.equality().stream().map(IndexedColumns::normalize).toList());
+        var ordered = columns.ordered().stream().map(IndexedColumns::normalize).toList();
+        for (var index : indexes) {
+            if (index.size() >= equality.size() + ordered.size()
+                    && new HashSet<>(index.subList(0, equality.size())).equals(equality)
+                    && index.subList(equality.size(), equality.size() + ordered.size()).equals(ordered)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<String> getColumns(AbstractEntityPersister persister, String field) {
+        try {
+            var columns = field.equals(persister.getIdentifierPropertyName()) ? persister.getIdentifierColumnNames() : persister.getPropertyColumnNames(field);
+            return columns == null ? List.of() : List.of(columns);
+        } catch (RuntimeException e) {
+            return List.of();
+        }
+    }
+
+    private record IndexColumns(List<String> equality, List<String> ordered) {
+
+        private List<String> columns() {
+            var columns = new ArrayList<>(equality);
+            columns.addAll(ordered);
+            return List.copyOf(columns);
+        }
+    }
+
+    private AbstractEntityPersister getPersister(Class<?> entityClass) {
+        var descriptor = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMappingMetamodel().findEntityDescriptor(entityClass);
+        return descriptor instanceof AbstractEntityPersister persister ? persister : null;
+    }
+}
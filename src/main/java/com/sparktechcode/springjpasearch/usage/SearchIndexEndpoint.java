@@ -0,0 +1,40 @@
+package com.sparktechcode.springjpasearch.usage;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+@Endpoint(id = "searchindexes")
+public class SearchIndexEndpoint {
+
+    private final SearchUsageStatistics statistics;
+    private final SearchIndexAdvisor advisor;
+    private final int limit;
+
+    public SearchIndexEndpoint(SearchUsageStatistics statistics, EntityManagerFactory entityManagerFactory) {
+        this(statistics, entityManagerFactory, 20);
+    }
+
+    public SearchIndexEndpoint(SearchUsageStatistics statistics, EntityManagerFactory entityManagerFactory, int limit) {
+        this.statistics = statistics;
+        this.advisor = new SearchIndexAdvisor(entityManagerFactory);
+        this.limit = limit;
+    }
+
+    @ReadOperation
+    public SearchIndexReport report() {
+        var usages = statistics.getUsages();
+        return new SearchIndexReport(usages, advisor.suggest(usages, limit));
+    }
+
+    @DeleteOperation
+    public void reset() {
+        statistics.reset();
+    }
+
+    public record SearchIndexReport(List<SearchUsage> usages, List<IndexSuggestion> suggestions) {
+    }
+}
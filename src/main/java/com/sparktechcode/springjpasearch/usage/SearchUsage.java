@@ -0,0 +1,44 @@
+package com.sparktechcode.springjpasearch.usage;
+
+import com.sparktechcode.springjpasearch.queries.CompiledSearch;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class SearchUsage {
+
+    @Getter(AccessLevel.PACKAGE)
+    private final Class<?> entityClass;
+    @Getter(AccessLevel.PACKAGE)
+    private final CompiledSearch search;
+    private final String entity;
+    private final String shape;
+    private final List<String> filters;
+    private final List<String> orders;
+    private final long searches;
+    private final long errors;
+    private final double totalMillis;
+    private final double meanMillis;
+    private final double maxQueryMillis;
+
+    SearchUsage(Class<?> entityClass, CompiledSearch search, long searches, long errors, long totalNanos, long maxNanos) {
+        this.entityClass = entityClass;
+        this.search = search;
+        this.entity = entityClass.getSimpleName();
+        this.shape = search.shape();
+        this.filters = search.filters().stream()
+                .flatMap(group -> group.conditions().stream())
+                .map(condition -> condition.getPath().field() + condition.getOperation())
+                .toList();
+        this.orders = search.orders().stream()
+                .map(order -> order.path().field() + (order.ascending() ? ":a" : ":d"))
+                .toList();
+        this.searches = searches;
+        this.errors = errors;
+        this.totalMillis = totalNanos / 1_000_000.0;
+        this.meanMillis = searches == 0 ? 0 : totalMillis / searches;
+        this.maxQueryMillis = maxNanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,115 @@
+package com.sparktechcode.springjpasearch.usage;
+
+import com.sparktechcode.springjpasearch.metrics.SearchMetrics;
+import com.sparktechcode.springjpasearch.metrics.SearchPhase;
+import com.sparktechcode.springjpasearch.queries.CompiledSearch;
+import com.sparktechcode.springjpasearch.queries.FilterCondition;
+import com.sparktechcode.springjpasearch.queries.FilterGroup;
+
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class SearchUsageStatistics implements SearchMetrics {
+
+    private static final Set<SearchPhase> QUERY_PHASES = EnumSet.of(SearchPhase.IDS, SearchPhase.COUNT, SearchPhase.FACETS);
+
+    private final int maxShapes;
+    private final ConcurrentHashMap<UsageKey, UsageCounter> counters = new ConcurrentHashMap<>();
+
+    public SearchUsageStatistics() {
+        this(1000);
+    }
+
+    public SearchUsageStatistics(int maxShapes) {
+        this.maxShapes = maxShapes;
+    }
+
+    @Override
+    public void recordSearch(Class<?> entityClass, CompiledSearch search) {
+        var key = new UsageKey(entityClass, search.shape());
+        var counter = counters.get(key);
+        if (counter == null) {
+            if (counters.size() >= maxShapes) {
+                return;
+            }
+            counter = counters.computeIfAbsent(key, ignored -> new UsageCounter(withoutValues(search)));
+        }
+        counter.searches.increment();
+    }
+
+    @Override
+    public Timing start(SearchPhase phase, Class<?> entityClass) {
+        if (!QUERY_PHASES.contains(phase)) {
+            return shape -> {
+            };
+        }
+        var started = System.nanoTime();
+        return shape -> {
+            var counter = counters.get(new UsageKey(entityClass, shape));
+            if (counter == null) {
+                return;
+            }
+            var elapsed = System.nanoTime() - started;
+            counter.nanos.add(elapsed);
+            counter.maxNanos.accumulate(elapsed);
+        };
+    }
+
+    @Override
+    public void recordError(Class<?> entityClass, String shape, Throwable error) {
+        var counter = counters.get(new UsageKey(entityClass, shape));
+        if (counter != null) {
+            counter.errors.increment();
+        }
+    }
+
+    @Override
+    public void recordPage(Class<?> entityClass, String shape, int size, Long total) {
+    }
+
+    public List<SearchUsage> getUsages() {
+        return counters.entrySet().stream()
+                .map(entry -> entry.getValue().toUsage(entry.getKey().entityClass()))
+                .sorted(Comparator.comparingDouble(SearchUsage::getTotalMillis).reversed())
+                .toList();
+    }
+
+    public void reset() {
+        counters.clear();
+    }
+
+    private static CompiledSearch withoutValues(CompiledSearch search) {
+        // counters live as long as the statistics, they must not keep the values of the first search of a shape
+        var filters = search.filters().stream()
+                .map(group -> new FilterGroup(group.conditions().stream()
+                        .map(condition -> new FilterCondition(condition.getPath(), condition.getFunction(), condition.getOperation(), ""))
+                        .toList()))
+                .toList();
+        return new CompiledSearch(filters, search.orders(), search.shape());
+    }
+
+    private record UsageKey(Class<?> entityClass, String shape) {
+    }
+
+    private static class UsageCounter {
+
+        private final CompiledSearch search;
+        private final LongAdder searches = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private UsageCounter(CompiledSearch search) {
+            this.search = search;
+        }
+
+        private SearchUsage toUsage(Class<?> entityClass) {
+            return new SearchUsage(entityClass, search, searches.sum(), errors.sum(), nanos.sum(), maxNanos.get());
+        }
+    }
+}
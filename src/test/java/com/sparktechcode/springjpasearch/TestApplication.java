@@ -0,0 +1,20 @@
+package com.sparktechcode.springjpasearch;
+
+import com.sparktechcode.springjpasearch.cache.SearchCacheInvalidator;
+import com.sparktechcode.springjpasearch.cache.SearchResultCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Duration;
+
+@SpringBootApplication
+public class TestApplication {
+
+    @Bean
+    public SearchResultCache searchResultCache(EntityManagerFactory entityManagerFactory) {
+        var cache = new SearchResultCache(1_000, Duration.ofMinutes(5));
+        new SearchCacheInvalidator(entityManagerFactory, cache);
+        return cache;
+    }
+}
@@ -0,0 +1,21 @@
+package com.sparktechcode.springjpasearch.model;
+
+import com.sparktechcode.springjpasearch.entities.BaseEntity;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Entity
+@Getter
+@Setter
+public class Country implements BaseEntity<Long> {
+
+    @Id
+    private Long id;
+    private String code;
+    @OneToMany(mappedBy = "country")
+    private Set<Person> persons = new HashSet<>();
+}
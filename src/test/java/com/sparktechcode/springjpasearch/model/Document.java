@@ -0,0 +1,19 @@
+package com.sparktechcode.springjpasearch.model;
+
+import com.sparktechcode.springjpasearch.entities.BaseEntity;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Entity
+@Getter
+@Setter
+public class Document implements BaseEntity<UUID> {
+
+    @Id
+    private UUID id;
+    private String title;
+}
@@ -0,0 +1,18 @@
+package com.sparktechcode.springjpasearch.model;
+
+import com.sparktechcode.springjpasearch.entities.BaseEntity;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+@Entity
+@Getter
+@Setter
+public class Permission implements BaseEntity<Long> {
+
+    @Id
+    private Long id;
+    private String name;
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Role role;
+}
@@ -0,0 +1,36 @@
+package com.sparktechcode.springjpasearch.model;
+
+import com.sparktechcode.springjpasearch.entities.BaseEntity;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+@Entity
+@Getter
+@Setter
+@Table(indexes = @Index(columnList = "tier, age"))
+public class Person implements BaseEntity<Long> {
+
+    @Id
+    private Long id;
+    private String name;
+    private Integer age;
+    @Column(precision = 30, scale = 10)
+    private BigDecimal score;
+    @Enumerated(EnumType.STRING)
+    private Tier tier;
+    private LocalDate created;
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Country country;
+    @OneToMany(mappedBy = "person")
+    private Set<Role> roles = new HashSet<>();
+    @ElementCollection
+    private Set<String> tags = new HashSet<>();
+    @ManyToMany
+    private Set<Team> teams = new HashSet<>();
+}
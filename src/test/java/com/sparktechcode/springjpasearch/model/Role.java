@@ -0,0 +1,23 @@
+package com.sparktechcode.springjpasearch.model;
+
+import com.sparktechcode.springjpasearch.entities.BaseEntity;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Entity
+@Getter
+@Setter
+public class Role implements BaseEntity<Long> {
+
+    @Id
+    private Long id;
+    private String name;
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Person person;
+    @OneToMany(mappedBy = "role")
+    private Set<Permission> permissions = new HashSet<>();
+}
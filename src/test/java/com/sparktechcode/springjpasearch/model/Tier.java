@@ -0,0 +1,6 @@
+package com.sparktechcode.springjpasearch.model;
+
+public enum Tier {
+    BASIC,
+    GOLD
+}
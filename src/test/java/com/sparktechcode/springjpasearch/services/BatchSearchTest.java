@@ -0,0 +1,39 @@
+package com.sparktechcode.springjpasearch.services;
+
+import com.sparktechcode.springjpasearch.model.Country;
+import com.sparktechcode.springjpasearch.model.Person;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static com.sparktechcode.springjpasearch.services.TestData.params;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchSearchTest extends SearchTest {
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void detachesOnlyConsumedBatches() {
+        transactionTemplate.executeWithoutResult(status -> {
+            var entityManager = personSearchService.getEntityManager();
+            var country = entityManager.find(Country.class, 1L);
+            var ids = new HashSet<Long>();
+            var batches = new ArrayList<List<Person>>();
+            personSearchService.forEachBatch(params(), null, 7, batch -> {
+                batch.forEach(person -> assertTrue(ids.add(person.getId())));
+                batches.add(batch);
+            });
+            assertEquals(TestData.PERSONS, ids.size());
+            assertTrue(entityManager.contains(country));
+            batches.subList(0, batches.size() - 1).forEach(batch -> batch.forEach(person -> assertFalse(entityManager.contains(person))));
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package com.sparktechcode.springjpasearch.services;
+
+import com.sparktechcode.springjpasearch.count.CountStrategy;
+import com.sparktechcode.springjpasearch.count.SearchCount;
+import com.sparktechcode.springjpasearch.model.Person;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.MultiValueMap;
+
+import static com.sparktechcode.springjpasearch.services.TestData.params;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CountStrategyTest extends SearchTest {
+
+    @Test
+    void cappedCountStopsAtCap() {
+        assertEquals(SearchCount.atLeast(10), cappedCount(10, params(), null));
+        assertEquals(SearchCount.exact(TestData.PERSONS), cappedCount(Long.MAX_VALUE, params(), null));
+    }
+
+    @Test
+    void cappedCountCountsEntitiesOnceWithCollectionFilters() {
+        assertEquals(SearchCount.exact(TestData.PERSONS), cappedCount(100, params("filter", "roles.name::CUSTOMER"), null));
+        assertEquals(SearchCount.exact(TestData.PERSONS / 2), cappedCount(100, params("filter", "tier::GOLD"), null));
+    }
+
+    @Test
+    void cappedCountCountsEntitiesOnceWithImplicitCollectionJoins() {
+        Specification<Person> roles = (root, query, builder) -> builder.like(root.join("roles").get("name"), "R%");
+        assertEquals(SearchCount.exact(TestData.PERSONS), cappedCount(100, params(), roles));
+    }
+
+    private SearchCount cappedCount(long cap, MultiValueMap<String, String> params, Specification<Person> specification) {
+        return CountStrategy.capped(cap).count(personSearchService, personSearchService.getEntityManager(), personSearchService.toCountSpecification(params, specification), null);
+    }
+}
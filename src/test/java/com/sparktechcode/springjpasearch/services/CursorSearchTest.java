@@ -0,0 +1,57 @@
+package com.sparktechcode.springjpasearch.services;
+
+import com.sparktechcode.springjpasearch.model.Person;
+import com.sparktechcode.springjpasearch.pagination.SearchPage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static com.sparktechcode.springjpasearch.services.TestData.params;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CursorSearchTest extends SearchTest {
+
+    @Test
+    void pagesAscendingOrderWithNullsLast() {
+        var expected = expectedIds(Comparator.nullsLast(Comparator.<Integer>naturalOrder()), Person::getAge);
+        assertEquals(expected, pageThrough("age:a", 4));
+    }
+
+    @Test
+    void pagesDescendingOrderWithNullsFirst() {
+        var expected = expectedIds(Comparator.nullsFirst(Comparator.<Integer>reverseOrder()), Person::getAge);
+        assertEquals(expected, pageThrough("age:d", 4));
+    }
+
+    @Test
+    void keepsBigDecimalPrecisionInCursor() {
+        var expected = expectedIds(Comparator.<java.math.BigDecimal>naturalOrder(), Person::getScore);
+        assertEquals(expected, pageThrough("score:a", 4));
+    }
+
+    private List<Long> pageThrough(String order, int limit) {
+        var ids = new ArrayList<Long>();
+        var cursor = "";
+        for (var pages = 0; cursor != null; pages++) {
+            var page = (SearchPage<Long>) personSearchService.searchIdentifiers(params("order", order, "limit", String.valueOf(limit), "after", cursor));
+            ids.addAll(page.getContent());
+            cursor = page.getNextCursor();
+            if (pages > TestData.PERSONS) {
+                throw new AssertionError("Cursor pagination does not terminate");
+            }
+        }
+        assertNull(cursor);
+        return ids;
+    }
+
+    private <T> List<Long> expectedIds(Comparator<T> comparator, Function<Person, T> field) {
+        return personSearchService.getEntityManager().createQuery("select p from Person p", Person.class).getResultList().stream()
+                .sorted(Comparator.comparing(field, comparator).thenComparing(Person::getId))
+                .map(Person::getId)
+                .toList();
+    }
+}
@@ -0,0 +1,69 @@
+package com.sparktechcode.springjpasearch.services;
+
+import com.sparktechcode.springjpasearch.model.Person;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static com.sparktechcode.springjpasearch.services.TestData.params;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DistinctSearchTest extends SearchTest {
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void filtersElementCollectionWithoutDuplicates() {
+        assertUnique(personSearchService.searchIdentifiers(params("filter", "tags::all", "limit", "100")), TestData.PERSONS);
+        assertUnique(personSearchService.searchIdentifiers(params("filter", "tags::tag1", "limit", "100")), 10);
+        assertEquals(TestData.PERSONS, personSearchService.count(params("filter", "tags::all")));
+    }
+
+    @Test
+    void filtersNestedCollectionWithoutDuplicates() {
+        assertUnique(personSearchService.searchIdentifiers(params("filter", "roles.permissions.name/:P0,P1", "limit", "100")), TestData.PERSONS);
+        assertEquals(TestData.PERSONS, personSearchService.count(params("filter", "roles.permissions.name/:P0,P1")));
+    }
+
+    @Test
+    void countsImplicitCollectionJoinsOfSpecifications() {
+        Specification<Person> roles = (root, query, builder) -> builder.like(root.get("roles").get("name"), "R%");
+        assertUnique(personSearchService.searchIdentifiers(params("limit", "100"), roles), TestData.PERSONS);
+        assertEquals(TestData.PERSONS, personSearchService.count(params(), roles));
+    }
+
+    @Test
+    void ordersByCollectionWithoutDuplicates() {
+        assertUnique(personSearchService.searchIdentifiers(params("order", "roles.name:a", "limit", "100")), TestData.PERSONS);
+        assertUnique(personSearchService.searchIdentifiers(params("order", "tags:d", "limit", "7")), TestData.PERSONS);
+        var all = personSearchService.search(params("order", "roles.name:d", "allData", "true"));
+        assertEquals(TestData.PERSONS, all.getContent().stream().map(Person::getId).distinct().count());
+        assertEquals(TestData.PERSONS, all.getContent().size());
+    }
+
+    @Test
+    void streamsOrderedByCollectionWithoutDuplicates() {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (var stream = personSearchService.searchStream(params("order", "tags:a"), null)) {
+                var ids = stream.map(Person::getId).toList();
+                assertEquals(TestData.PERSONS, new HashSet<>(ids).size());
+                assertEquals(TestData.PERSONS, ids.size());
+            }
+        });
+    }
+
+    private void assertUnique(Page<Long> page, long total) {
+        List<Long> ids = page.getContent();
+        assertEquals(ids.size(), new HashSet<>(ids).size(), "duplicate ids " + ids);
+        assertEquals(total, page.getTotalElements());
+        if (page.getPageable().getPageSize() >= total) {
+            assertEquals(total, ids.size());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.sparktechcode.springjpasearch.services;
+
+import com.sparktechcode.springjpasearch.model.Document;
+import jakarta.persistence.EntityManager;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+@Service
+@Getter
+@RequiredArgsConstructor
+public class DocumentSearchService implements SearchService<UUID, Document> {
+
+    private final EntityManager entityManager;
+}
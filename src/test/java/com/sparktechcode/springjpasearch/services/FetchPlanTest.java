@@ -0,0 +1,54 @@
+package com.sparktechcode.springjpasearch.services;
+
+import com.sparktechcode.springjpasearch.fetch.FetchPlan;
+import com.sparktechcode.springjpasearch.model.Person;
+import com.sparktechcode.springjpasearch.model.Role;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.sparktechcode.springjpasearch.services.TestData.params;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FetchPlanTest extends SearchTest {
+
+    @Test
+    void loadsNestedCollectionsWithOneQueryPerCollection() {
+        personSearchService.setSearchFetchPlan(FetchPlan.of("country", "roles", "roles.permissions"));
+        for (var limit : List.of("5", "20")) {
+            statistics().clear();
+            var persons = personSearchService.search(params("limit", limit, "order", "id:a")).getContent();
+            assertEquals(Integer.parseInt(limit), persons.size());
+            for (var person : persons) {
+                assertTrue(Hibernate.isInitialized(person.getCountry()));
+                assertTrue(Hibernate.isInitialized(person.getRoles()));
+                assertEquals(3, person.getRoles().size());
+                person.getRoles().stream().map(Role::getPermissions).forEach(permissions -> assertTrue(Hibernate.isInitialized(permissions)));
+            }
+            // ids, count, entities with countries, roles and permissions
+            assertEquals(5, statistics().getPrepareStatementCount());
+        }
+    }
+
+    @Test
+    void skipsBasicEntityGraphAttributes() {
+        personSearchService.setSearchEntityGraphAttributes(List.of("name", "country", "roles"));
+        var persons = personSearchService.search(params("limit", "5")).getContent();
+        assertEquals(5, persons.size());
+        for (var person : persons) {
+            assertTrue(Hibernate.isInitialized(person.getCountry()));
+            assertTrue(Hibernate.isInitialized(person.getRoles()));
+        }
+    }
+
+    @Test
+    void resolvesPlanOnce() {
+        var plan = FetchPlan.of("roles", "roles.permissions");
+        var metadata = personSearchService.getSearchMetadata();
+        assertSame(plan.resolve(metadata), FetchPlan.of("roles", "roles.permissions").resolve(metadata));
+        assertEquals(Person.class, metadata.getEntityClass());
+    }
+}
@@ -0,0 +1,42 @@
+package com.sparktechcode.springjpasearch.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static com.sparktechcode.springjpasearch.services.TestData.params;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InListSearchTest extends SearchTest {
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void filtersUuidFieldWithSmallAndLargeLists() {
+        assertEquals(Set.of(TestData.documentId(2), TestData.documentId(4)), documentIds("id/:" + TestData.documentId(2) + "," + TestData.documentId(4)));
+        var large = IntStream.rangeClosed(3, 100).mapToObj(TestData::documentId).map(UUID::toString).collect(Collectors.joining(","));
+        assertEquals(Set.of(TestData.documentId(3), TestData.documentId(4), TestData.documentId(5)), documentIds("id/:" + large));
+        assertEquals(Set.of(TestData.documentId(1), TestData.documentId(2)), documentIds("id!/" + large));
+    }
+
+    @Test
+    void sharesPlansOfLargeListsOnlyWhenBoundAsArrays() {
+        for (var size : new int[]{70, 90, 70}) {
+            var ids = LongStream.rangeClosed(1, size).mapToObj(String::valueOf).collect(Collectors.joining(","));
+            var tiers = IntStream.range(0, size).mapToObj(i -> i % 2 == 0 ? "GOLD" : "BASIC").collect(Collectors.joining(","));
+            var count = transactionTemplate.execute(status -> personSearchService.count(params("filter", "id/:" + ids, "filter", "tier/:" + tiers)));
+            assertEquals(TestData.PERSONS, count);
+        }
+    }
+
+    private Set<UUID> documentIds(String filter) {
+        return Set.copyOf(documentSearchService.searchIdentifiers(params("filter", filter, "limit", "100")).getContent());
+    }
+}
@@ -0,0 +1,56 @@
+package com.sparktechcode.springjpasearch.services;
+
+import com.sparktechcode.springjpasearch.cache.SearchResultCache;
+import com.sparktechcode.springjpasearch.cost.SearchCostModel;
+import com.sparktechcode.springjpasearch.fetch.FetchPlan;
+import com.sparktechcode.springjpasearch.metrics.SearchMetrics;
+import com.sparktechcode.springjpasearch.model.Person;
+import com.sparktechcode.springjpasearch.queries.FieldPath;
+import com.sparktechcode.springjpasearch.text.TextMatchStrategy;
+import jakarta.persistence.EntityManager;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@Getter
+@Setter
+@RequiredArgsConstructor
+public class PersonSearchService implements SearchService<Long, Person> {
+
+    private final EntityManager entityManager;
+    private boolean queryPlanReuseEnabled = true;
+    private boolean searchAllDataAllowed = true;
+    private boolean parallelSearchEnabled;
+    private SearchCostModel searchCostModel;
+    private SearchResultCache searchResultCache;
+    private SearchMetrics searchMetrics = SearchMetrics.none();
+    private TextMatchStrategy textMatchStrategy = TextMatchStrategy.upperCase();
+    private FetchPlan searchFetchPlan;
+    private List<String> searchEntityGraphAttributes = List.of();
+
+    @Override
+    public FetchPlan getSearchFetchPlan() {
+        return searchFetchPlan != null ? searchFetchPlan : SearchService.super.getSearchFetchPlan();
+    }
+
+    @Override
+    public TextMatchStrategy getTextMatchStrategy(FieldPath field) {
+        return textMatchStrategy;
+    }
+
+    public void reset() {
+        searchMetrics = SearchMetrics.none();
+        searchResultCache = null;
+        queryPlanReuseEnabled = true;
+        searchAllDataAllowed = true;
+        parallelSearchEnabled = false;
+        searchCostModel = null;
+        textMatchStrategy = TextMatchStrategy.upperCase();
+        searchFetchPlan = null;
+        searchEntityGraphAttributes = List.of();
+    }
+}
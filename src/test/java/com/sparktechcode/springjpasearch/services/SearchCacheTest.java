@@ -0,0 +1,58 @@
+package com.sparktechcode.springjpasearch.services;
+
+import com.sparktechcode.springjpasearch.cache.SearchResultCache;
+import com.sparktechcode.springjpasearch.model.Document;
+import com.sparktechcode.springjpasearch.model.Person;
+import com.sparktechcode.springjpasearch.model.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static com.sparktechcode.springjpasearch.services.TestData.params;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchCacheTest extends SearchTest {
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void enableCache() {
+        searchResultCache.clear();
+        personSearchService.setSearchResultCache(searchResultCache);
+    }
+
+    @Test
+    void invalidatesOnElementCollectionChange() {
+        assertEquals(TestData.PERSONS, personSearchService.count(params("filter", "tags::all")));
+        transactionTemplate.executeWithoutResult(status -> personSearchService.getEntityManager().find(Person.class, 1L).getTags().remove("all"));
+        assertEquals(TestData.PERSONS - 1, personSearchService.count(params("filter", "tags::all")));
+    }
+
+    @Test
+    void invalidatesOnManyToManyChange() {
+        assertEquals(TestData.PERSONS / 2, personSearchService.count(params("filter", "teams.name::red")));
+        transactionTemplate.executeWithoutResult(status -> {
+            var entityManager = personSearchService.getEntityManager();
+            entityManager.find(Person.class, 1L).getTeams().add(entityManager.find(Team.class, 1L));
+        });
+        assertEquals(TestData.PERSONS / 2 + 1, personSearchService.count(params("filter", "teams.name::red")));
+    }
+
+    @Test
+    void invalidatesOnlyDependentEntries() {
+        personSearchService.count(params("filter", "tier::GOLD"));
+        personSearchService.count(params("filter", "teams.name::red"));
+        assertEquals(2, searchResultCache.size());
+        searchResultCache.invalidate(Team.class);
+        assertEquals(1, searchResultCache.size());
+        searchResultCache.invalidate(Document.class);
+        assertEquals(1, searchResultCache.size());
+        searchResultCache.invalidate(Person.class);
+        assertEquals(0, searchResultCache.size());
+    }
+}
@@ -0,0 +1,26 @@
+package com.sparktechcode.springjpasearch.services;
+
+import com.sparktechcode.springjpasearch.cost.SearchCostModel;
+import com.sparktechcode.springjpasearch.exceptions.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import static com.sparktechcode.springjpasearch.services.TestData.params;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchCostTest extends SearchTest {
+
+    @Test
+    void guardAndTimeoutAreOptIn() {
+        assertNull(documentSearchService.getSearchCostModel());
+        assertNull(documentSearchService.getQueryTimeout());
+        assertTrue(personSearchService.searchIdentifiers(params("page", "5000", "limit", "100")).getContent().isEmpty());
+    }
+
+    @Test
+    void rejectsExpensiveSearchesWithCostModel() {
+        personSearchService.setSearchCostModel(SearchCostModel.DEFAULT);
+        assertThrows(BadRequestException.class, () -> personSearchService.searchIdentifiers(params("page", "5000", "limit", "100")));
+    }
+}
@@ -0,0 +1,59 @@
+package com.sparktechcode.springjpasearch.services;
+
+import com.sparktechcode.springjpasearch.metrics.MicrometerSearchMetrics;
+import com.sparktechcode.springjpasearch.model.Person;
+import com.sparktechcode.springjpasearch.usage.SearchUsageStatistics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+import static com.sparktechcode.springjpasearch.services.TestData.params;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SearchMetricsTest extends SearchTest {
+
+    @Test
+    void limitsShapeTags() {
+        var registry = new SimpleMeterRegistry();
+        personSearchService.setSearchMetrics(new MicrometerSearchMetrics(registry, 2));
+        personSearchService.count(params("filter", "age>:20"));
+        personSearchService.count(params("filter", "name:~person"));
+        personSearchService.count(params("filter", "tier::GOLD"));
+        personSearchService.count(params("filter", "created>:2020-01-02"));
+        var timers = registry.find(MicrometerSearchMetrics.PHASE_TIMER).tag("phase", "count").timers();
+        assertEquals(3, timers.size());
+        assertEquals(2, registry.find(MicrometerSearchMetrics.PHASE_TIMER).tag("phase", "count").tag("shape", "other").timer().count());
+    }
+
+    @Test
+    void timesParseOnlyWhenCompiled() {
+        var registry = new SimpleMeterRegistry();
+        personSearchService.setSearchMetrics(new MicrometerSearchMetrics(registry));
+        var search = params("filter", "name~:unique" + System.nanoTime());
+        personSearchService.count(search);
+        personSearchService.count(search);
+        var parse = registry.find(MicrometerSearchMetrics.PHASE_TIMER).tag("phase", "parse").timer();
+        assertNotNull(parse);
+        assertEquals(1, parse.count());
+        assertEquals(2, registry.find(MicrometerSearchMetrics.PHASE_TIMER).tag("phase", "count").timer().count());
+    }
+
+    @Test
+    void countsOneErrorPerSearch() {
+        var statistics = new SearchUsageStatistics();
+        personSearchService.setSearchMetrics(statistics);
+        personSearchService.setParallelSearchEnabled(true);
+        Specification<Person> failing = (root, query, builder) -> {
+            throw new IllegalStateException("failing specification");
+        };
+        assertThrows(IllegalStateException.class, () -> personSearchService.facets(params("filter", "age>:20"), failing, List.of("tier", "created")));
+        var usage = statistics.getUsages().get(0);
+        assertEquals(1, usage.getSearches());
+        assertEquals(1, usage.getErrors());
+        assertEquals(List.of("age>:"), usage.getFilters());
+    }
+}
@@ -0,0 +1,99 @@
+package com.sparktechcode.springjpasearch.services;
+
+import com.sparktechcode.springjpasearch.pagination.SearchPage;
+import com.sparktechcode.springjpasearch.plans.SearchPlans;
+import com.sparktechcode.springjpasearch.text.TextMatchStrategy;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.MultiValueMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.sparktechcode.springjpasearch.services.TestData.params;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchPlanTest extends SearchTest {
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void sharedPlansKeepValuesOfConcurrentSearches() throws Exception {
+        var searches = new ArrayList<MultiValueMap<String, String>>();
+        for (var age = 17; age <= 25; age++) {
+            searches.add(params("filter", "age>:" + age, "order", "id:a", "limit", "10"));
+        }
+        for (var filter : List.of("name~:person1", "name~:person2", "name:~son_", "name:~SON3", "name~~PERSON3", "name!~1", "id/:1,2,3", "id/:4,5,6", "id/:7", "id/:8,9", "tier::GOLD", "tier::BASIC")) {
+            searches.add(params("filter", filter, "order", "id:d", "limit", "10"));
+        }
+        for (var order : List.of("age:a", "age:d")) {
+            searches.addAll(cursorPages(order));
+        }
+        for (var strategy : List.of(TextMatchStrategy.upperCase(), TextMatchStrategy.caseSensitive(), TextMatchStrategy.ilike())) {
+            personSearchService.setTextMatchStrategy(strategy);
+            personSearchService.setQueryPlanReuseEnabled(false);
+            var expected = new ArrayList<Result>();
+            for (var search : searches) {
+                expected.add(search(search));
+            }
+            personSearchService.setQueryPlanReuseEnabled(true);
+            assertEquals(expected, searchConcurrently(searches, 10));
+        }
+        SearchPlans.clearCache();
+    }
+
+    private List<Result> searchConcurrently(List<MultiValueMap<String, String>> searches, int rounds) throws Exception {
+        var order = new ArrayList<Integer>();
+        for (var round = 0; round < rounds; round++) {
+            for (var i = 0; i < searches.size(); i++) {
+                order.add(i);
+            }
+        }
+        Collections.shuffle(order);
+        var executor = Executors.newFixedThreadPool(8);
+        try {
+            var futures = new ArrayList<Future<Result>>();
+            for (var index : order) {
+                futures.add(executor.submit((Callable<Result>) () -> search(searches.get(index))));
+            }
+            var results = new ArrayList<Result>(Collections.nCopies(searches.size(), null));
+            for (var i = 0; i < order.size(); i++) {
+                var result = futures.get(i).get();
+                var previous = results.set(order.get(i), result);
+                if (previous != null) {
+                    assertEquals(previous, result, "search " + searches.get(order.get(i)));
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<MultiValueMap<String, String>> cursorPages(String order) {
+        var pages = new ArrayList<MultiValueMap<String, String>>();
+        var cursor = "";
+        while (cursor != null) {
+            var params = params("order", order, "limit", "4", "after", cursor);
+            pages.add(params);
+            cursor = ((SearchPage<Long>) personSearchService.searchIdentifiers(params)).getNextCursor();
+        }
+        return pages;
+    }
+
+    private Result search(MultiValueMap<String, String> params) {
+        return transactionTemplate.execute(status -> {
+            var page = (SearchPage<Long>) personSearchService.searchIdentifiers(params);
+            return new Result(page.getContent(), page.getTotalElements(), page.getNextCursor());
+        });
+    }
+
+    private record Result(List<Long> ids, long total, String nextCursor) {
+    }
+}
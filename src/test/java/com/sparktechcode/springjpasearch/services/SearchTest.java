@@ -0,0 +1,36 @@
+package com.sparktechcode.springjpasearch.services;
+
+import com.sparktechcode.springjpasearch.TestApplication;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(classes = TestApplication.class)
+abstract class SearchTest {
+
+    @Autowired
+    protected PersonSearchService personSearchService;
+
+    @Autowired
+    protected DocumentSearchService documentSearchService;
+
+    @Autowired
+    protected TestData testData;
+
+    @Autowired
+    protected EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void resetData() {
+        personSearchService.reset();
+        testData.reset();
+        statistics().clear();
+    }
+
+    protected Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,98 @@
+package com.sparktechcode.springjpasearch.services;
+
+import com.sparktechcode.springjpasearch.model.*;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class TestData {
+
+    public static final int PERSONS = 30;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public static MultiValueMap<String, String> params(String... values) {
+        var params = new LinkedMultiValueMap<String, String>();
+        for (var i = 0; i < values.length; i += 2) {
+            params.add(values[i], values[i + 1]);
+        }
+        return params;
+    }
+
+    public static UUID documentId(int index) {
+        return new UUID(0, index);
+    }
+
+    public void reset() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (var entity : new String[]{"Permission", "Role", "Document"}) {
+                entityManager.createQuery("delete from " + entity).executeUpdate();
+            }
+            entityManager.createQuery("select p from Person p", Person.class).getResultList().forEach(entityManager::remove);
+            entityManager.flush();
+            for (var entity : new String[]{"Team", "Country"}) {
+                entityManager.createQuery("delete from " + entity).executeUpdate();
+            }
+            var countries = new Country[]{country(1L, "BA"), country(2L, "DE")};
+            var teams = new Team[]{team(1L, "red"), team(2L, "blue")};
+            for (long i = 1; i <= PERSONS; i++) {
+                var person = new Person();
+                person.setId(i);
+                person.setName("person" + i);
+                person.setAge(i % 4 == 0 ? null : (int) (i % 7) + 18);
+                person.setScore(new BigDecimal("1000000000000.000000000" + (i % 3)));
+                person.setTier(i % 2 == 0 ? Tier.GOLD : Tier.BASIC);
+                person.setCreated(LocalDate.of(2020, 1, 1).plusDays(i % 5));
+                person.setCountry(countries[(int) (i % 2)]);
+                person.getTags().add("tag" + (i % 3));
+                person.getTags().add("all");
+                person.getTeams().add(teams[(int) (i % 2)]);
+                entityManager.persist(person);
+                for (long r = 0; r < 3; r++) {
+                    var role = new Role();
+                    role.setId(i * 10 + r);
+                    role.setName(r == 0 ? "CUSTOMER" : "R" + r);
+                    role.setPerson(person);
+                    entityManager.persist(role);
+                    var permission = new Permission();
+                    permission.setId(i * 100 + r);
+                    permission.setName("P" + r);
+                    permission.setRole(role);
+                    entityManager.persist(permission);
+                }
+            }
+            for (var i = 1; i <= 5; i++) {
+                var document = new Document();
+                document.setId(documentId(i));
+                document.setTitle("document" + i);
+                entityManager.persist(document);
+            }
+        });
+    }
+
+    private Country country(Long id, String code) {
+        var country = new Country();
+        country.setId(id);
+        country.setCode(code);
+        entityManager.persist(country);
+        return country;
+    }
+
+    private Team team(Long id, String name) {
+        var team = new Team();
+        team.setId(id);
+        team.setName(name);
+        entityManager.persist(team);
+        return team;
+    }
+}
@@ -0,0 +1,33 @@
+package com.sparktechcode.springjpasearch.services;
+
+import com.sparktechcode.springjpasearch.text.TextMatchStrategy;
+import org.junit.jupiter.api.Test;
+
+import static com.sparktechcode.springjpasearch.services.TestData.params;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TextSearchTest extends SearchTest {
+
+    @Test
+    void matchesWildcardsLiterally() {
+        for (var strategy : new TextMatchStrategy[]{TextMatchStrategy.upperCase(), TextMatchStrategy.lowerCase(), TextMatchStrategy.caseSensitive(), TextMatchStrategy.ilike()}) {
+            personSearchService.setTextMatchStrategy(strategy);
+            assertEquals(0, count("name:~person_"));
+            assertEquals(0, count("name~:%1"));
+            assertEquals(0, count("name~~person_"));
+            assertEquals(TestData.PERSONS, count("name!~_"));
+            assertEquals(11, count("name:~son1"));
+        }
+    }
+
+    @Test
+    void equalsIgnoringCaseWithCaseSensitiveStrategy() {
+        personSearchService.setTextMatchStrategy(TextMatchStrategy.caseSensitive());
+        assertEquals(1, count("name~~PERSON1"));
+        assertEquals(0, count("name:~PERSON1"));
+    }
+
+    private long count(String filter) {
+        return personSearchService.count(params("filter", filter));
+    }
+}